@@ -0,0 +1,52 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.exception.InvalidTransactionOperationException;
+import com.groupfinance.transaction_service.exception.TransactionNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Same error contract as GlobalExceptionHandler
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    // Handle validation errors
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach(error ->
+            errors.put(error.getField(), error.getDefaultMessage()));
+        
+        ApiResponse<Map<String, String>> response = ApiResponse.error("Validation failed");
+        response.setData(errors);
+        
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    // Handle transaction not found
+    @ExceptionHandler(TransactionNotFoundException.class)
+    public ResponseEntity<ApiResponse<String>> handleTransactionNotFound(TransactionNotFoundException ex) {
+        return new ResponseEntity<>(ApiResponse.error(ex.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    // Handle invalid operation
+    @ExceptionHandler(InvalidTransactionOperationException.class)
+    public ResponseEntity<ApiResponse<String>> handleInvalidOperation(InvalidTransactionOperationException ex) {
+        return new ResponseEntity<>(ApiResponse.error(ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    // Handle all other exceptions
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResponse<String>> handleGenericException(Exception ex) {
+        return new ResponseEntity<>(ApiResponse.error("An unexpected error occurred: " + ex.getMessage()),
+            HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
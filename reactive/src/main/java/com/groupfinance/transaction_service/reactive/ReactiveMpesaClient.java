@@ -0,0 +1,33 @@
+package com.groupfinance.transaction_service.reactive;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Non-blocking counterpart of MpesaMockService: the simulated Daraja round trip
+ * is a timer, not a sleeping thread
+ */
+@Component
+public class ReactiveMpesaClient {
+
+    private static final Duration STK_PUSH_LATENCY = Duration.ofSeconds(1);
+    
+    // Test phone number that always fails
+    private static final String FAILURE_PHONE_NUMBER = "254700000000";
+
+    public Mono<String> initiateStkPush(String phoneNumber, Double amount, String description) {
+        return Mono.delay(STK_PUSH_LATENCY)
+            .map(tick -> "REQ_" + System.currentTimeMillis() + "_" + ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    public boolean shouldSimulateFailure(String phoneNumber) {
+        return FAILURE_PHONE_NUMBER.equals(phoneNumber);
+    }
+
+    public String generateMockReceiptNumber() {
+        return "MPE" + System.currentTimeMillis() + "A" + ThreadLocalRandom.current().nextInt(1000);
+    }
+}
@@ -0,0 +1,157 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.dto.CorrectionChainResponse;
+import com.groupfinance.transaction_service.dto.TransactionRequest;
+import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Same REST contract as TransactionController, served non-blocking
+ */
+@RestController
+@RequestMapping("/api/transactions")
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+
+    public ReactiveTransactionController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Initiate a new transaction
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ApiResponse<TransactionResponse>>> createTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        
+        return transactionService.initiateTransaction(request, userId)
+            .map(response -> ResponseEntity.ok(ApiResponse.success("Transaction initiated successfully", response)));
+    }
+
+    /**
+     * Get all transactions for the current user
+     */
+    @GetMapping("/my-transactions")
+    public Mono<ResponseEntity<ApiResponse<List<TransactionSummary>>>> getUserTransactions(
+            @RequestHeader("X-User-Id") String userId) {
+        
+        return transactionService.getUserTransactions(userId).collectList()
+            .map(transactions -> ResponseEntity.ok(ApiResponse.success("User transactions retrieved successfully", transactions)));
+    }
+
+    /**
+     * Get all transactions of the current group (for dashboard)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<List<TransactionSummary>>>> getAllTransactions(
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        return transactionService.getAllTransactions(groupId).collectList()
+            .map(transactions -> ResponseEntity.ok(ApiResponse.success("All transactions retrieved successfully", transactions)));
+    }
+
+    /**
+     * Get a specific transaction by ID
+     */
+    @GetMapping("/{transactionId}")
+    public Mono<ResponseEntity<ApiResponse<TransactionResponse>>> getTransactionById(
+            @PathVariable Long transactionId,
+            @RequestHeader("X-User-Id") String userId) {
+        
+        return transactionService.getTransactionById(transactionId, userId)
+            .map(transaction -> ResponseEntity.ok(ApiResponse.success("Transaction retrieved successfully", transaction)));
+    }
+
+    /**
+     * Cancel a pending transaction
+     */
+    @PutMapping("/{transactionId}/cancel")
+    public Mono<ResponseEntity<ApiResponse<TransactionResponse>>> cancelTransaction(
+            @PathVariable Long transactionId,
+            @RequestHeader("X-User-Id") String userId) {
+        
+        return transactionService.cancelTransaction(transactionId, userId)
+            .map(response -> ResponseEntity.ok(ApiResponse.success("Transaction cancelled successfully", response)));
+    }
+
+    /**
+     * Create a correction transaction for a previous error
+     */
+    @PostMapping("/{originalTransactionId}/correction")
+    public Mono<ResponseEntity<ApiResponse<TransactionResponse>>> createCorrectionTransaction(
+            @PathVariable Long originalTransactionId,
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        
+        return transactionService.createCorrectionTransaction(originalTransactionId, request, userId)
+            .map(response -> ResponseEntity.ok(ApiResponse.success("Correction transaction created successfully", response)));
+    }
+
+    /**
+     * Get the correction tree and net effective amount of one of the current group's transactions
+     */
+    @GetMapping("/{transactionId}/correction-chain")
+    public Mono<ResponseEntity<ApiResponse<CorrectionChainResponse>>> getCorrectionChain(
+            @PathVariable Long transactionId,
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        return transactionService.getCorrectionChains(List.of(transactionId), groupId).next()
+            .map(chain -> ResponseEntity.ok(ApiResponse.success("Correction chain retrieved successfully", chain)));
+    }
+
+    /**
+     * Get correction trees for several of the current group's transactions in one call
+     */
+    @GetMapping("/correction-chains")
+    public Mono<ResponseEntity<ApiResponse<List<CorrectionChainResponse>>>> getCorrectionChains(
+            @RequestParam List<Long> ids,
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        return transactionService.getCorrectionChains(ids, groupId).collectList()
+            .map(chains -> ResponseEntity.ok(ApiResponse.success("Correction chains retrieved successfully", chains)));
+    }
+
+    /**
+     * Get the current group's transactions by status
+     */
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<ApiResponse<List<TransactionSummary>>>> getTransactionsByStatus(
+            @PathVariable TransactionStatus status,
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        return transactionService.getTransactionsByStatus(groupId, status).collectList()
+            .map(transactions -> ResponseEntity.ok(ApiResponse.success("Transactions retrieved by status", transactions)));
+    }
+
+    /**
+     * ADMIN ENDPOINT: Simulate M-Pesa callback (for testing only)
+     */
+    @PostMapping("/{transactionId}/simulate-callback")
+    public Mono<ResponseEntity<ApiResponse<TransactionResponse>>> simulateMpesaCallback(
+            @PathVariable Long transactionId,
+            @RequestParam boolean success,
+            @RequestParam(required = false) String receiptNumber) {
+        
+        String message = success ? "M-Pesa success callback simulated" : "M-Pesa failure callback simulated";
+        return transactionService.simulateMpesaCallback(transactionId, success, receiptNumber)
+            .map(response -> ResponseEntity.ok(ApiResponse.success(message, response)));
+    }
+
+    /**
+     * Health check endpoint
+     */
+    @GetMapping("/health")
+    public Mono<ResponseEntity<ApiResponse<String>>> healthCheck() {
+        return Mono.just(ResponseEntity.ok(ApiResponse.success("Transaction Service is running", null)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveTransactionRepository extends ReactiveCrudRepository<TransactionRow, Long> {
+    
+    // Find all transactions by user ID
+    Flux<TransactionRow> findByCreatedByUserId(String createdByUserId);
+    
+    // Find transactions by status, newest first
+    Flux<TransactionRow> findByStatusOrderByCreatedAtDesc(TransactionStatus status);
+    
+    // Find corrections for a whole level of a correction tree in one query
+    Flux<TransactionRow> findByOriginalTransactionIdIn(Collection<Long> originalTransactionIds);
+    
+    // Find all transactions ordered by creation date
+    Flux<TransactionRow> findAllByOrderByCreatedAtDesc();
+    
+    // A group's transactions, newest first (for dashboard)
+    Flux<TransactionRow> findByGroupIdOrderByCreatedAtDesc(String groupId);
+    
+    // A group's transactions in a status, newest first
+    Flux<TransactionRow> findByGroupIdAndStatusOrderByCreatedAtDesc(String groupId, TransactionStatus status);
+    
+    // Check a transaction exists and is owned by user
+    @Query("SELECT * FROM transactions WHERE id = :transactionId AND created_by_user_id = :userId")
+    Mono<TransactionRow> findByIdAndUserId(Long transactionId, String userId);
+}
@@ -0,0 +1,44 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.dto.CorrectionChainResponse;
+import com.groupfinance.transaction_service.dto.TransactionRequest;
+import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking mirror of TransactionService
+ */
+public interface ReactiveTransactionService {
+    
+    // Initiate a new transaction
+    Mono<TransactionResponse> initiateTransaction(TransactionRequest request, String userId);
+    
+    // Cancel a pending transaction
+    Mono<TransactionResponse> cancelTransaction(Long transactionId, String userId);
+    
+    // Create a correction transaction for a previous error
+    Mono<TransactionResponse> createCorrectionTransaction(Long originalTransactionId, TransactionRequest request, String userId);
+    
+    // Get all transactions for a user
+    Flux<TransactionSummary> getUserTransactions(String userId);
+    
+    // Get a specific transaction by ID
+    Mono<TransactionResponse> getTransactionById(Long transactionId, String userId);
+    
+    // Get all transactions of a group (for dashboard)
+    Flux<TransactionSummary> getAllTransactions(String groupId);
+    
+    // Get a group's transactions by status
+    Flux<TransactionSummary> getTransactionsByStatus(String groupId, TransactionStatus status);
+    
+    // Resolve correction trees for several of a group's transactions at once
+    Flux<CorrectionChainResponse> getCorrectionChains(List<Long> transactionIds, String groupId);
+    
+    // Simulate M-Pesa callback (for testing)
+    Mono<TransactionResponse> simulateMpesaCallback(Long transactionId, boolean success, String receiptNumber);
+}
@@ -0,0 +1,308 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.dto.CorrectionChainResponse;
+import com.groupfinance.transaction_service.dto.TransactionRequest;
+import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
+import com.groupfinance.transaction_service.exception.InvalidTransactionOperationException;
+import com.groupfinance.transaction_service.exception.TransactionNotFoundException;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ReactiveTransactionServiceImpl implements ReactiveTransactionService {
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveMpesaClient mpesaClient;
+    private final int stkMaxAttempts;
+    private final Duration stkBaseDelay;
+    private final Duration stkMaxDelay;
+    
+    // 25-second cancellation and auto-completion window
+    private static final int AUTO_COMPLETION_SECONDS = 25;
+
+    public ReactiveTransactionServiceImpl(ReactiveTransactionRepository transactionRepository, ReactiveMpesaClient mpesaClient,
+                                          @Value("${app.stk-retry.max-attempts:5}") int stkMaxAttempts,
+                                          @Value("${app.stk-retry.base-delay-ms:2000}") long stkBaseDelayMillis,
+                                          @Value("${app.stk-retry.max-delay-ms:60000}") long stkMaxDelayMillis) {
+        this.transactionRepository = transactionRepository;
+        this.mpesaClient = mpesaClient;
+        this.stkMaxAttempts = stkMaxAttempts;
+        this.stkBaseDelay = Duration.ofMillis(stkBaseDelayMillis);
+        this.stkMaxDelay = Duration.ofMillis(stkMaxDelayMillis);
+    }
+
+    @Override
+    public Mono<TransactionResponse> initiateTransaction(TransactionRequest request, String userId) {
+        // Request fields were validated by @Valid in the controller (TransactionRequest constraints)
+        return Mono.defer(() -> {
+            TransactionType type = (request.getOriginalTransactionId() != null) ?
+                TransactionType.CORRECTION : TransactionType.EXPENSE;
+                
+            TransactionRow transaction = new TransactionRow(type, request.getAmount(),
+                request.getDescription(), request.getCategory(), userId);
+            transaction.setMpesaPhoneNumber(request.getMpesaPhoneNumber());
+            transaction.setGroupId(request.getGroupId());
+            if (type == TransactionType.CORRECTION) {
+                transaction.setOriginalTransactionId(request.getOriginalTransactionId());
+            }
+            return transactionRepository.save(transaction);
+        })
+        .flatMap(saved -> mpesaClient.initiateStkPush(request.getMpesaPhoneNumber(), request.getAmount(), request.getDescription())
+            .onErrorResume(e -> {
+                // Transient M-Pesa failure: keep the transaction PENDING and retry it in the background
+                // rather than failing the payment (and having the client create a duplicate)
+                saved.setMpesaCallbackResult("INITIATION_RETRYING: " + e.getMessage());
+                return transactionRepository.save(saved)
+                    .doOnNext(pending -> retryStkPush(pending.getId()))
+                    .then(Mono.<String>empty());
+            })
+            // Only the push itself is retried: once the payer has the prompt, a failed save must not push again
+            .flatMap(requestId -> recordStkPushResult(saved, requestId))
+            .defaultIfEmpty(saved))
+        .map(this::convertToResponse);
+    }
+
+    private Mono<TransactionRow> recordStkPushResult(TransactionRow transaction, String requestId) {
+        transaction.setMpesaRequestId(requestId);
+        if (mpesaClient.shouldSimulateFailure(transaction.getMpesaPhoneNumber())) {
+            transaction.transitionTo(TransactionStatus.FAILED);
+            transaction.setMpesaCallbackResult("SIMULATED_FAILURE: Insufficient funds");
+        }
+        return transactionRepository.save(transaction)
+            .doOnNext(updated -> {
+                if (updated.getStatus() == TransactionStatus.PENDING) {
+                    scheduleAutoCompletion(updated.getId());
+                }
+            });
+    }
+
+    /**
+     * Retry a failed STK push with jittered exponential backoff (app.stk-retry.*), re-reading the row before
+     * every attempt so a cancelled transaction is never pushed; FAILED only once the attempts run out.
+     * Unlike the MVC edition's queue, pending retries live in memory and do not survive a restart.
+     */
+    private void retryStkPush(Long transactionId) {
+        transactionRepository.findById(transactionId)
+            .filter(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+            .flatMap(transaction -> mpesaClient.initiateStkPush(
+                    transaction.getMpesaPhoneNumber(), transaction.getAmount(), transaction.getDescription())
+                .map(requestId -> Tuples.of(transaction, requestId)))
+            .retryWhen(Retry.backoff(stkMaxAttempts, stkBaseDelay).maxBackoff(stkMaxDelay).jitter(0.5))
+            .onErrorResume(e -> deadLetter(transactionId, Exceptions.isRetryExhausted(e) ? e.getCause() : e)
+                .then(Mono.<Tuple2<TransactionRow, String>>empty()))
+            .flatMap(pushed -> recordStkPushResult(pushed.getT1(), pushed.getT2()))
+            .subscribe(
+                updated -> System.out.println("✓ STK push for transaction " + transactionId + " succeeded on retry"),
+                e -> System.err.println("ERROR: STK retry for transaction " + transactionId + " failed: " + e.getMessage()));
+    }
+
+    private Mono<TransactionRow> deadLetter(Long transactionId, Throwable cause) {
+        return transactionRepository.findById(transactionId)
+            .filter(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+            .flatMap(transaction -> {
+                transaction.transitionTo(TransactionStatus.FAILED);
+                transaction.setMpesaCallbackResult("DEAD_LETTER: STK push failed after " +
+                    stkMaxAttempts + " retries: " + cause.getMessage());
+                return transactionRepository.save(transaction);
+            })
+            .doOnNext(failed -> System.err.println("STK push for transaction " + transactionId + " dead-lettered: " + cause.getMessage()));
+    }
+
+    @Override
+    public Mono<TransactionResponse> cancelTransaction(Long transactionId, String userId) {
+        return transactionRepository.findByIdAndUserId(transactionId, userId)
+            .switchIfEmpty(Mono.error(new TransactionNotFoundException(transactionId)))
+            .flatMap(transaction -> {
+                if (transaction.getStatus() != TransactionStatus.PENDING) {
+                    return Mono.error(new InvalidTransactionOperationException(
+                        "Cannot cancel transaction. Current status: " + transaction.getStatus()));
+                }
+                long secondsElapsed = Duration.between(transaction.getCreatedAt(), LocalDateTime.now()).getSeconds();
+                if (secondsElapsed > AUTO_COMPLETION_SECONDS) {
+                    return Mono.error(new InvalidTransactionOperationException(
+                        "Cancellation window expired. Transactions can only be cancelled within " +
+                        AUTO_COMPLETION_SECONDS + " seconds. Time elapsed: " + secondsElapsed + " seconds."));
+                }
+                transaction.transitionTo(TransactionStatus.CANCELLED);
+                return transactionRepository.save(transaction);
+            })
+            .map(this::convertToResponse);
+    }
+
+    /**
+     * Auto-complete after the window on a timer - no thread is parked while waiting
+     */
+    private void scheduleAutoCompletion(Long transactionId) {
+        Mono.delay(Duration.ofSeconds(AUTO_COMPLETION_SECONDS))
+            .then(transactionRepository.findById(transactionId))
+            .filter(transaction -> transaction.getStatus() == TransactionStatus.PENDING)
+            .flatMap(transaction -> {
+                transaction.transitionTo(TransactionStatus.COMPLETED);
+                transaction.setMpesaReceiptNumber(mpesaClient.generateMockReceiptNumber());
+                transaction.setMpesaCallbackResult("AUTO_COMPLETED: Transaction automatically completed after " +
+                    AUTO_COMPLETION_SECONDS + " seconds");
+                return transactionRepository.save(transaction);
+            })
+            .subscribe(
+                completed -> System.out.println("✓ Transaction " + transactionId + " automatically COMPLETED after " +
+                    AUTO_COMPLETION_SECONDS + " seconds"),
+                e -> System.err.println("ERROR: Failed to auto-complete transaction " + transactionId + ": " + e.getMessage()));
+    }
+
+    @Override
+    public Mono<TransactionResponse> createCorrectionTransaction(Long originalTransactionId, TransactionRequest request, String userId) {
+        return transactionRepository.findById(originalTransactionId)
+            .switchIfEmpty(Mono.error(new TransactionNotFoundException(originalTransactionId)))
+            .flatMap(original -> {
+                if (original.getStatus() != TransactionStatus.COMPLETED) {
+                    return Mono.error(new InvalidTransactionOperationException(
+                        "Can only create corrections for COMPLETED transactions. Original transaction status: " +
+                        original.getStatus()));
+                }
+                if (!original.getGroupId().equals(request.getGroupId())) {
+                    return Mono.error(new InvalidTransactionOperationException(
+                        "Correction must belong to the original transaction's group: " + original.getGroupId()));
+                }
+                request.setOriginalTransactionId(originalTransactionId);
+                request.setCategory(TransactionCategory.CORRECTION);
+                return initiateTransaction(request, userId);
+            });
+    }
+
+    @Override
+    public Flux<TransactionSummary> getUserTransactions(String userId) {
+        return transactionRepository.findByCreatedByUserId(userId).map(this::convertToSummary);
+    }
+
+    @Override
+    public Mono<TransactionResponse> getTransactionById(Long transactionId, String userId) {
+        return transactionRepository.findByIdAndUserId(transactionId, userId)
+            .switchIfEmpty(Mono.error(new TransactionNotFoundException(transactionId)))
+            .map(this::convertToResponse);
+    }
+
+    @Override
+    public Flux<TransactionSummary> getAllTransactions(String groupId) {
+        return transactionRepository.findByGroupIdOrderByCreatedAtDesc(groupId).map(this::convertToSummary);
+    }
+
+    @Override
+    public Flux<TransactionSummary> getTransactionsByStatus(String groupId, TransactionStatus status) {
+        return transactionRepository.findByGroupIdAndStatusOrderByCreatedAtDesc(groupId, status).map(this::convertToSummary);
+    }
+
+    /**
+     * One IN query per tree level, as in the MVC build
+     */
+    @Override
+    public Flux<CorrectionChainResponse> getCorrectionChains(List<Long> transactionIds, String groupId) {
+        Set<Long> rootIds = new LinkedHashSet<>(transactionIds);
+        return transactionRepository.findAllById(rootIds)
+            .collectMap(TransactionRow::getId)
+            .flatMapMany(roots -> {
+                for (Long id : rootIds) {
+                    // Roots outside the caller's group are reported as not found
+                    if (!roots.containsKey(id) || !roots.get(id).getGroupId().equals(groupId)) {
+                        return Flux.error(new TransactionNotFoundException(id));
+                    }
+                }
+                Map<Long, List<TransactionRow>> correctionsByParent = new HashMap<>();
+                Set<Long> seen = new LinkedHashSet<>(roots.keySet());
+                return loadLevel(new ArrayList<>(roots.keySet()), seen, correctionsByParent)
+                    .thenMany(Flux.fromIterable(transactionIds)
+                        .map(id -> buildChain(roots.get(id), correctionsByParent)));
+            });
+    }
+
+    @Override
+    public Mono<TransactionResponse> simulateMpesaCallback(Long transactionId, boolean success, String receiptNumber) {
+        return transactionRepository.findById(transactionId)
+            .switchIfEmpty(Mono.error(new TransactionNotFoundException(transactionId)))
+            .flatMap(transaction -> {
+                if (transaction.getStatus() != TransactionStatus.PENDING) {
+                    return Mono.error(new InvalidTransactionOperationException(
+                        "Can only simulate callback for PENDING transactions. Current status: " + transaction.getStatus()));
+                }
+                if (success) {
+                    transaction.transitionTo(TransactionStatus.COMPLETED);
+                    transaction.setMpesaReceiptNumber(receiptNumber != null ? receiptNumber : mpesaClient.generateMockReceiptNumber());
+                    transaction.setMpesaCallbackResult("SIMULATED_SUCCESS: Payment completed successfully");
+                } else {
+                    transaction.transitionTo(TransactionStatus.FAILED);
+                    transaction.setMpesaCallbackResult("SIMULATED_FAILURE: Payment failed");
+                }
+                return transactionRepository.save(transaction);
+            })
+            .map(this::convertToResponse);
+    }
+
+    // Private helper methods
+    private Mono<Void> loadLevel(List<Long> frontier, Set<Long> seen, Map<Long, List<TransactionRow>> correctionsByParent) {
+        if (frontier.isEmpty()) {
+            return Mono.empty();
+        }
+        return transactionRepository.findByOriginalTransactionIdIn(frontier)
+            .filter(correction -> seen.add(correction.getId()))
+            .doOnNext(correction -> correctionsByParent
+                .computeIfAbsent(correction.getOriginalTransactionId(), k -> new ArrayList<>()).add(correction))
+            .map(TransactionRow::getId)
+            .collectList()
+            .flatMap(next -> loadLevel(next, seen, correctionsByParent));
+    }
+
+    private CorrectionChainResponse buildChain(TransactionRow transaction, Map<Long, List<TransactionRow>> correctionsByParent) {
+        CorrectionChainResponse node = new CorrectionChainResponse(convertToResponse(transaction));
+        double netAmount = transaction.getStatus() == TransactionStatus.COMPLETED ? transaction.getAmount() : 0.0;
+        for (TransactionRow correction : correctionsByParent.getOrDefault(transaction.getId(), List.of())) {
+            CorrectionChainResponse child = buildChain(correction, correctionsByParent);
+            netAmount += child.getNetAmount();
+            node.getCorrections().add(child);
+        }
+        node.setNetAmount(netAmount);
+        return node;
+    }
+
+    private TransactionSummary convertToSummary(TransactionRow transaction) {
+        return new TransactionSummary(transaction.getId(), transaction.getAmount(), transaction.getDescription(),
+            transaction.getCategory(), transaction.getType(), transaction.getStatus(), transaction.getMpesaPhoneNumber(),
+            transaction.getMpesaReceiptNumber(), transaction.getCreatedAt(), transaction.getCompletedAt(),
+            transaction.getCreatedByUserId(), transaction.getGroupId(), transaction.getOriginalTransactionId());
+    }
+
+    private TransactionResponse convertToResponse(TransactionRow transaction) {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(transaction.getId());
+        response.setAmount(transaction.getAmount());
+        response.setDescription(transaction.getDescription());
+        response.setCategory(transaction.getCategory());
+        response.setType(transaction.getType());
+        response.setStatus(transaction.getStatus());
+        response.setMpesaPhoneNumber(transaction.getMpesaPhoneNumber());
+        response.setMpesaReceiptNumber(transaction.getMpesaReceiptNumber());
+        response.setCreatedAt(transaction.getCreatedAt());
+        response.setCompletedAt(transaction.getCompletedAt());
+        response.setCreatedByUserId(transaction.getCreatedByUserId());
+        response.setGroupId(transaction.getGroupId());
+        response.setOriginalTransactionId(transaction.getOriginalTransactionId());
+        return response;
+    }
+}
@@ -0,0 +1,194 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the transactions table (same columns as the JPA Transaction entity)
+ */
+@Table("transactions")
+public class TransactionRow {
+
+    @Id
+    private Long id;
+
+    private TransactionType type;
+    private Double amount;
+    private String description;
+    private TransactionCategory category;
+    private TransactionStatus status = TransactionStatus.PENDING;
+
+    // M-Pesa Integration Fields
+    private String mpesaPhoneNumber;
+    private String mpesaReceiptNumber;
+    private String mpesaRequestId;
+    private String mpesaCallbackResult;
+
+    // Timestamps
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    private String createdByUserId;
+    private String groupId;
+    private Long originalTransactionId;
+
+    // Constructors
+    public TransactionRow() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public TransactionRow(TransactionType type, Double amount, String description,
+                          TransactionCategory category, String createdByUserId) {
+        this();
+        this.type = type;
+        this.amount = amount;
+        this.description = description;
+        this.category = category;
+        this.createdByUserId = createdByUserId;
+    }
+
+    // Same status side effects as the JPA entity
+    public void transitionTo(TransactionStatus status) {
+        this.status = status;
+        this.updatedAt = LocalDateTime.now();
+        if (status == TransactionStatus.COMPLETED || status == TransactionStatus.FAILED) {
+            this.completedAt = this.updatedAt;
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public TransactionCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TransactionCategory category) {
+        this.category = category;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TransactionStatus status) {
+        this.status = status;
+    }
+
+    public String getMpesaPhoneNumber() {
+        return mpesaPhoneNumber;
+    }
+
+    public void setMpesaPhoneNumber(String mpesaPhoneNumber) {
+        this.mpesaPhoneNumber = mpesaPhoneNumber;
+    }
+
+    public String getMpesaReceiptNumber() {
+        return mpesaReceiptNumber;
+    }
+
+    public void setMpesaReceiptNumber(String mpesaReceiptNumber) {
+        this.mpesaReceiptNumber = mpesaReceiptNumber;
+    }
+
+    public String getMpesaRequestId() {
+        return mpesaRequestId;
+    }
+
+    public void setMpesaRequestId(String mpesaRequestId) {
+        this.mpesaRequestId = mpesaRequestId;
+    }
+
+    public String getMpesaCallbackResult() {
+        return mpesaCallbackResult;
+    }
+
+    public void setMpesaCallbackResult(String mpesaCallbackResult) {
+        this.mpesaCallbackResult = mpesaCallbackResult;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public String getCreatedByUserId() {
+        return createdByUserId;
+    }
+
+    public void setCreatedByUserId(String createdByUserId) {
+        this.createdByUserId = createdByUserId;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public Long getOriginalTransactionId() {
+        return originalTransactionId;
+    }
+
+    public void setOriginalTransactionId(Long originalTransactionId) {
+        this.originalTransactionId = originalTransactionId;
+    }
+}
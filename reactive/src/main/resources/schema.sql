@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    amount DOUBLE PRECISION NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    category VARCHAR(32) NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    mpesa_phone_number VARCHAR(255),
+    mpesa_receipt_number VARCHAR(255),
+    mpesa_request_id VARCHAR(255),
+    mpesa_callback_result VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    created_by_user_id VARCHAR(255) NOT NULL,
+    group_id VARCHAR(64) NOT NULL,
+    original_transaction_id BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_status_created ON transactions (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_transactions_group_created ON transactions (group_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_transactions_group_status ON transactions (group_id, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_transactions_user ON transactions (created_by_user_id);
+CREATE INDEX IF NOT EXISTS idx_transactions_original ON transactions (original_transaction_id);
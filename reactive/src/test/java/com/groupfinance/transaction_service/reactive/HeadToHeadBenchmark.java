@@ -0,0 +1,126 @@
+package com.groupfinance.transaction_service.reactive;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BENCHMARK ONLY: drives the same workload against the MVC and reactive builds.
+ *
+ * Start both services (MVC on 8080, reactive on 8081), then run:
+ *   java -cp target/test-classes com.groupfinance.transaction_service.reactive.HeadToHeadBenchmark \
+ *        http://localhost:8080 http://localhost:8081 [concurrency] [requestsPerClient]
+ *
+ * Each client POSTs a transaction (1s simulated STK push) and then polls it,
+ * like a mobile app waiting for confirmation.
+ */
+public class HeadToHeadBenchmark {
+
+    private static final String BODY =
+        "{\"amount\":100,\"mpesaPhoneNumber\":\"254712345678\",\"description\":\"bench\",\"category\":\"FOOD\",\"groupId\":\"bench-group\"}";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: HeadToHeadBenchmark <baseUrl>... [concurrency] [requestsPerClient]");
+            return;
+        }
+        List<String> baseUrls = new ArrayList<>();
+        List<Integer> numbers = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("http")) {
+                baseUrls.add(arg);
+            } else {
+                numbers.add(Integer.parseInt(arg));
+            }
+        }
+        int concurrency = numbers.size() > 0 ? numbers.get(0) : 200;
+        int requestsPerClient = numbers.size() > 1 ? numbers.get(1) : 5;
+
+        for (String baseUrl : baseUrls) {
+            run(baseUrl, concurrency, requestsPerClient);
+        }
+    }
+
+    private static void run(String baseUrl, int concurrency, int requestsPerClient) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        List<Long> postLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> pollLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                String userId = "bench-" + c;
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        try {
+                            long t0 = System.nanoTime();
+                            HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"))
+                                .header("Content-Type", "application/json")
+                                .header("X-User-Id", userId)
+                                .POST(HttpRequest.BodyPublishers.ofString(BODY)).build(),
+                                HttpResponse.BodyHandlers.ofString());
+                            postLatencies.add(System.nanoTime() - t0);
+                            if (created.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            String id = extractId(created.body());
+
+                            long t1 = System.nanoTime();
+                            HttpResponse<String> polled = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/" + id))
+                                .header("X-User-Id", userId).GET().build(),
+                                HttpResponse.BodyHandlers.ofString());
+                            pollLatencies.add(System.nanoTime() - t1);
+                            if (polled.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println("=== " + baseUrl + " ===");
+        System.out.printf("Clients: %d x %d requests, elapsed %.2f s, errors %d%n",
+            concurrency, requestsPerClient, seconds, errors.get());
+        System.out.printf("POST throughput: %.1f req/s, p50 %d ms, p99 %d ms%n",
+            postLatencies.size() / seconds, percentile(postLatencies, 50), percentile(postLatencies, 99));
+        System.out.printf("GET  p50 %d ms, p99 %d ms%n", percentile(pollLatencies, 50), percentile(pollLatencies, 99));
+    }
+
+    private static String extractId(String json) {
+        int start = json.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return json.substring(start, end);
+    }
+
+    private static long percentile(List<Long> nanos, int percentile) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1_000_000;
+    }
+}
@@ -0,0 +1,72 @@
+package com.groupfinance.transaction_service.reactive;
+
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * A failed initial STK push keeps the transaction PENDING and is retried in the background
+ * until M-Pesa accepts it
+ */
+@SpringBootTest(properties = {
+		"spring.r2dbc.url=r2dbc:h2:mem:///stkretrytest;DB_CLOSE_DELAY=-1",
+		"app.stk-retry.base-delay-ms=10",
+		"app.stk-retry.max-delay-ms=50"
+})
+@AutoConfigureWebTestClient
+class ReactiveStkRetryTests {
+
+	private static final String BODY =
+		"{\"amount\":100,\"mpesaPhoneNumber\":\"254712345678\",\"description\":\"retry test\",\"category\":\"FOOD\",\"groupId\":\"retry-group\"}";
+
+	@Autowired private WebTestClient webTestClient;
+	@Autowired private ReactiveTransactionRepository transactionRepository;
+	@MockitoBean private ReactiveMpesaClient mpesaClient;
+
+	@Test
+	void failedPushIsRetriedInsteadOfFailingThePayment() throws Exception {
+		when(mpesaClient.initiateStkPush(anyString(), any(), any()))
+			.thenReturn(Mono.error(new IllegalStateException("Daraja timed out")))
+			.thenReturn(Mono.just("REQ_RETRIED"));
+
+		AtomicReference<Integer> id = new AtomicReference<>();
+		webTestClient.post().uri("/api/transactions")
+			.header("X-User-Id", "user-1")
+			.contentType(MediaType.APPLICATION_JSON)
+			.bodyValue(BODY)
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.data.status").isEqualTo(TransactionStatus.PENDING.name())
+			.jsonPath("$.data.id").value(Integer.class, id::set);
+
+		// The retry runs off the request: the second push goes out after the backoff
+		verify(mpesaClient, timeout(5000).times(2)).initiateStkPush(anyString(), any(), any());
+		TransactionRow row = null;
+		for (int i = 0; i < 50; i++) {
+			row = transactionRepository.findById(id.get().longValue()).block(Duration.ofSeconds(5));
+			if (row != null && row.getMpesaRequestId() != null) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		assertNotNull(row);
+		assertEquals(TransactionStatus.PENDING, row.getStatus());
+		assertEquals("REQ_RETRIED", row.getMpesaRequestId());
+		assertTrue(row.getMpesaCallbackResult().startsWith("INITIATION_RETRYING"));
+	}
+}
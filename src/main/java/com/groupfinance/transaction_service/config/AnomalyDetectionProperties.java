@@ -0,0 +1,138 @@
+package com.groupfinance.transaction_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sliding-window rules for new transactions, e.g.
+ * app.anomaly.rules.phone-daily-amount.subject=phone
+ * app.anomaly.rules.phone-daily-amount.window=day
+ * app.anomaly.rules.phone-daily-amount.max-amount=250000
+ * app.anomaly.rules.phone-daily-amount.action=hold
+ */
+@Component
+@ConfigurationProperties(prefix = "app.anomaly")
+public class AnomalyDetectionProperties {
+
+    private boolean enabled = true;
+
+    // Windows untouched for this long are dropped (keep it above a day, or daily totals reset early)
+    private Duration idleEviction = Duration.ofHours(25);
+
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    public enum Subject {
+        USER,
+        PHONE
+    }
+
+    public enum Window {
+        MINUTE,
+        HOUR,
+        DAY
+    }
+
+    public enum Action {
+        FLAG,   // Let the transaction through, but count and log it
+        HOLD    // Refuse to initiate it
+    }
+
+    /**
+     * A rule fires when the new transaction would take the window past any limit that is set (> 0)
+     */
+    public static class Rule {
+        private Subject subject = Subject.USER;
+        private Window window = Window.MINUTE;
+        private int maxCount;
+        private double maxAmount;
+        // Single amount larger than this multiple of the window's average ("fat finger")
+        private double maxMultipleOfAverage;
+        // Transactions the window must already hold before the average is trusted
+        private int minHistory = 5;
+        private Action action = Action.FLAG;
+
+        public Subject getSubject() {
+            return subject;
+        }
+
+        public void setSubject(Subject subject) {
+            this.subject = subject;
+        }
+
+        public Window getWindow() {
+            return window;
+        }
+
+        public void setWindow(Window window) {
+            this.window = window;
+        }
+
+        public int getMaxCount() {
+            return maxCount;
+        }
+
+        public void setMaxCount(int maxCount) {
+            this.maxCount = maxCount;
+        }
+
+        public double getMaxAmount() {
+            return maxAmount;
+        }
+
+        public void setMaxAmount(double maxAmount) {
+            this.maxAmount = maxAmount;
+        }
+
+        public double getMaxMultipleOfAverage() {
+            return maxMultipleOfAverage;
+        }
+
+        public void setMaxMultipleOfAverage(double maxMultipleOfAverage) {
+            this.maxMultipleOfAverage = maxMultipleOfAverage;
+        }
+
+        public int getMinHistory() {
+            return minHistory;
+        }
+
+        public void setMinHistory(int minHistory) {
+            this.minHistory = minHistory;
+        }
+
+        public Action getAction() {
+            return action;
+        }
+
+        public void setAction(Action action) {
+            this.action = action;
+        }
+    }
+}
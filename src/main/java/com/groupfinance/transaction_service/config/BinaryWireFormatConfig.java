@@ -0,0 +1,66 @@
+package com.groupfinance.transaction_service.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Compact binary encodings for clients that ask for them (Accept: application/cbor or
+ * application/x-jackson-smile); JSON stays the default. Same object shape as the JSON, but
+ * enums are written as ordinals and LocalDateTime as epoch millis (system zone, like the
+ * LocalDateTime.now() values they come from). Clients must decode enums with the declaration
+ * order of the model enums, so new constants are only ever appended.
+ *
+ * These beans replace Spring's default CBOR/Smile converters in place, after the JSON one.
+ */
+@Configuration
+public class BinaryWireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(compactMapper(builder.factory(new CBORFactory())));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(compactMapper(builder.factory(new SmileFactory())));
+    }
+
+    /**
+     * Boot's Jackson settings with the compact enum and timestamp encodings on top
+     */
+    public static ObjectMapper compactMapper(Jackson2ObjectMapperBuilder builder) {
+        SimpleModule compact = new SimpleModule("CompactWireFormat");
+        compact.addSerializer(LocalDateTime.class, new EpochMillisSerializer());
+        return builder
+            .featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+            .modulesToInstall(compact)
+            .build();
+    }
+
+    private static final class EpochMillisSerializer extends StdSerializer<LocalDateTime> {
+
+        EpochMillisSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
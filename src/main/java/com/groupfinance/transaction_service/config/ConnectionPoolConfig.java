@@ -0,0 +1,59 @@
+package com.groupfinance.transaction_service.config;
+
+import com.groupfinance.transaction_service.service.ConnectionUsageTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+public class ConnectionPoolConfig {
+
+    /**
+     * Attach hold-time/wait-time tracking to every Hikari pool before it starts
+     */
+    @Bean
+    public static BeanPostProcessor connectionUsageTrackerPostProcessor(ObjectProvider<ConnectionUsageTracker> tracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    hikari.setMetricsTrackerFactory(tracker.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ConnectionAttributionAspect connectionAttributionAspect() {
+        return new ConnectionAttributionAspect();
+    }
+
+    /**
+     * Labels the current thread with the outermost service method so pool
+     * metrics can be broken down per method
+     */
+    @Aspect
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Outside @Transactional so commit-time release is attributed too
+    public static class ConnectionAttributionAspect {
+
+        @Around("execution(* com.groupfinance.transaction_service.service.TransactionService+.*(..))")
+        public Object attribute(ProceedingJoinPoint joinPoint) throws Throwable {
+            boolean outermost = ConnectionUsageTracker.enterMethod(joinPoint.getSignature().getName());
+            try {
+                return joinPoint.proceed();
+            } finally {
+                if (outermost) {
+                    ConnectionUsageTracker.exitMethod();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.groupfinance.transaction_service.config;
+
+import com.groupfinance.transaction_service.controller.TransactionController;
+import com.groupfinance.transaction_service.service.MpesaGateway;
+import com.groupfinance.transaction_service.service.RateLimiter;
+import com.groupfinance.transaction_service.service.TransactionService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Fast-start profile: everything is lazy (spring.main.lazy-initialization) except the
+ * POST /api/transactions path - which pulls in the repositories and JPA with it - and beans
+ * with @Scheduled methods, which would otherwise never be created and so never scheduled.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    private static final List<Class<?>> HOT_PATH = List.of(
+        TransactionController.class, TransactionService.class, MpesaGateway.class, RateLimiter.class);
+
+    @Bean
+    public static LazyInitializationExcludeFilter hotPathEagerInitialization() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+            && (HOT_PATH.stream().anyMatch(type -> type.isAssignableFrom(beanType)) || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) (Method method) ->
+            AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                || AnnotatedElementUtils.hasAnnotation(method, Schedules.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package com.groupfinance.transaction_service.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Always-on flight recording (run with --spring.profiles.active=jfr): the JDK's low-overhead
+ * "default" settings plus the transaction lifecycle events from jfr/transactions.jfc, kept in a
+ * rolling window of app.jfr.max-age. Written to app.jfr.destination on shutdown; for a snapshot
+ * while running use jcmd <pid> JFR.dump name=transactions filename=spike.jfr
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true")
+public class FlightRecordingConfig {
+
+    private static final String RECORDING_NAME = "transactions";
+    private static final String LIFECYCLE_SETTINGS = "jfr/transactions.jfc";
+
+    private final Path destination;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private Recording recording;
+
+    public FlightRecordingConfig(@Value("${app.jfr.destination:./data/transactions.jfr}") Path destination,
+                                 @Value("${app.jfr.max-age:PT1H}") Duration maxAge,
+                                 @Value("${app.jfr.max-size-mb:250}") long maxSizeMb) {
+        this.destination = destination;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @PostConstruct
+    public void start() throws Exception {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource(LIFECYCLE_SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        if (destination.getParent() != null) {
+            Files.createDirectories(destination.getParent());
+        }
+
+        recording = new Recording(settings);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        System.out.println("Flight recording '" + RECORDING_NAME + "' started (last " + maxAge + ", written to " + destination + " on exit)");
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (recording == null) {
+            return;
+        }
+        // JFR's own exit hook (dump-on-exit) may have run first and written it already
+        if (recording.getState() == RecordingState.RUNNING) {
+            // Stopping writes the recording to its destination
+            recording.stop();
+            System.out.println("Flight recording written to " + destination);
+        }
+        recording.close();
+    }
+}
@@ -0,0 +1,138 @@
+package com.groupfinance.transaction_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip with reused Deflaters and buffers. A GZIPOutputStream per response allocates a native
+ * zlib stream (~256KB) and its buffers every time; here up to app.compression.pool-size
+ * compressors are kept and reset between uses, so steady-state compression allocates nothing.
+ */
+@Component
+public class GzipCompressorPool {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final int level;
+    private final BlockingQueue<Compressor> idle;
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    public GzipCompressorPool(@Value("${app.compression.level:1}") int level,
+                              @Value("${app.compression.pool-size:32}") int poolSize) {
+        this.level = level;
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Gzip everything from in onto out; out is left open
+     */
+    public void gzip(InputStream in, OutputStream out) throws IOException {
+        Compressor compressor = idle.poll();
+        if (compressor == null) {
+            compressor = new Compressor(level);
+        }
+        boolean reusable = false;
+        try {
+            long written = compressor.gzip(in, out);
+            responses.increment();
+            bytesIn.add(compressor.crcLength);
+            bytesOut.add(written);
+            reusable = true;
+        } finally {
+            compressor.reset();
+            if (!reusable || !idle.offer(compressor)) {
+                compressor.deflater.end();
+            }
+        }
+    }
+
+    public byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try {
+            gzip(new ByteArrayInputStream(data), out);
+        } catch (IOException e) {
+            // Only memory streams involved
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public long getResponses() {
+        return responses.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    private static final class Compressor {
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] input = new byte[BUFFER_SIZE];
+        private final byte[] output = new byte[BUFFER_SIZE];
+        private long crcLength;
+
+        Compressor(int level) {
+            // Raw deflate; the gzip header and trailer are written by hand
+            this.deflater = new Deflater(level, true);
+        }
+
+        long gzip(InputStream in, OutputStream out) throws IOException {
+            out.write(GZIP_HEADER);
+            long written = GZIP_HEADER.length;
+            int read;
+            while ((read = in.read(input)) > 0) {
+                crc.update(input, 0, read);
+                crcLength += read;
+                deflater.setInput(input, 0, read);
+                while (!deflater.needsInput()) {
+                    written += drain(out);
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                written += drain(out);
+            }
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, (int) crcLength);
+            return written + 8;
+        }
+
+        private int drain(OutputStream out) throws IOException {
+            int length = deflater.deflate(output);
+            out.write(output, 0, length);
+            return length;
+        }
+
+        void reset() {
+            deflater.reset();
+            crc.reset();
+            crcLength = 0;
+        }
+
+        private static void writeIntLE(OutputStream out, int value) throws IOException {
+            out.write(value);
+            out.write(value >>> 8);
+            out.write(value >>> 16);
+            out.write(value >>> 24);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.groupfinance.transaction_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint request limits, e.g.
+ * app.rate-limit.endpoints.create.per-user.requests=10
+ * app.rate-limit.endpoints.create.per-user.period=1m
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long (and therefore full) are dropped
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    private Map<String, EndpointLimits> endpoints = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public Map<String, EndpointLimits> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, EndpointLimits> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class EndpointLimits {
+        private Limit perUser;
+        private Limit perPhone;
+
+        public Limit getPerUser() {
+            return perUser;
+        }
+
+        public void setPerUser(Limit perUser) {
+            this.perUser = perUser;
+        }
+
+        public Limit getPerPhone() {
+            return perPhone;
+        }
+
+        public void setPerPhone(Limit perPhone) {
+            this.perPhone = perPhone;
+        }
+    }
+
+    public static class Limit {
+        // Burst size: requests allowed back to back
+        private int requests;
+        // Time for a fully drained bucket to refill
+        private Duration period = Duration.ofMinutes(1);
+
+        public int getRequests() {
+            return requests;
+        }
+
+        public void setRequests(int requests) {
+            this.requests = requests;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+}
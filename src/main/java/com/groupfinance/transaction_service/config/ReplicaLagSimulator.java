@@ -0,0 +1,124 @@
+package com.groupfinance.transaction_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * LOCAL TESTING ONLY: simulates asynchronous replication between two H2 databases.
+ * Copies the transactions and archive schema to the replica once, then every simulated-lag-ms
+ * ships changed rows, new archive segments and the deletes that archiving made, so replica
+ * reads trail the primary by up to that long.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = {"enabled", "simulated-lag-ms"})
+public class ReplicaLagSimulator {
+
+    // Re-ship rows this far behind the last run so commits that raced the previous copy aren't missed
+    private static final long REPLICATION_OVERLAP_MS = 5000;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransaction;
+
+    private volatile boolean schemaReady = false;
+    private Timestamp watermark = new Timestamp(0);
+
+    public ReplicaLagSimulator(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                               @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replicaDataSource));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void copySchema() {
+        // Hibernate only creates tables on the primary; replay its DDL on the replica
+        List<String> ddl = primary.queryForList("SCRIPT NODATA TABLE TRANSACTIONS, TRANSACTIONS_ARCHIVE", String.class);
+        for (String statement : ddl) {
+            if (statement.startsWith("CREATE") && !statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        schemaReady = true;
+        System.out.println("Replica schema initialised - replicating with simulated lag");
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.simulated-lag-ms}")
+    public synchronized void replicate() {
+        if (!schemaReady) {
+            return;
+        }
+        Timestamp startedAt = new Timestamp(System.currentTimeMillis());
+        SqlRowSet rows = primary.queryForRowSet("SELECT * FROM transactions WHERE updated_at >= ?", watermark);
+        SqlRowSetMetaData meta = rows.getMetaData();
+        String[] columns = meta.getColumnNames();
+
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        String merge = "MERGE INTO transactions (" + String.join(", ", columns) + ") KEY (id) VALUES (" + placeholders + ")";
+
+        List<Object[]> batch = new ArrayList<>();
+        while (rows.next()) {
+            Object[] values = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = rows.getObject(i + 1);
+            }
+            batch.add(values);
+        }
+        if (!batch.isEmpty()) {
+            replicaTransaction.executeWithoutResult(status -> replica.batchUpdate(merge, batch));
+        }
+        // After the upserts, so a row read above and archived since is deleted again
+        replicateArchive();
+        watermark = new Timestamp(startedAt.getTime() - REPLICATION_OVERLAP_MS);
+    }
+
+    /**
+     * Ship archive segments written since the watermark, and delete the rows they replaced: replica rows
+     * in a segment's ID range that the primary no longer has
+     */
+    private void replicateArchive() {
+        List<Object[]> segments = primary.query(
+            "SELECT id, archive_month, first_transaction_id, last_transaction_id, row_count, payload, archived_at "
+                + "FROM transactions_archive WHERE archived_at >= ?",
+            (rs, rowNum) -> new Object[] {rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4),
+                rs.getInt(5), rs.getBytes(6), rs.getTimestamp(7)},
+            watermark);
+        if (segments.isEmpty()) {
+            return;
+        }
+        List<Object[]> deletes = new ArrayList<>();
+        for (Object[] segment : segments) {
+            String inRange = "SELECT id FROM transactions WHERE id BETWEEN ? AND ?";
+            Set<Long> live = new HashSet<>(primary.queryForList(inRange, Long.class, segment[2], segment[3]));
+            for (Long id : replica.queryForList(inRange, Long.class, segment[2], segment[3])) {
+                if (!live.contains(id)) {
+                    deletes.add(new Object[] {id});
+                }
+            }
+        }
+        replicaTransaction.executeWithoutResult(status -> {
+            replica.batchUpdate("MERGE INTO transactions_archive (id, archive_month, first_transaction_id, "
+                + "last_transaction_id, row_count, payload, archived_at) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)", segments);
+            if (!deletes.isEmpty()) {
+                replica.batchUpdate("DELETE FROM transactions WHERE id = ?", deletes);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.groupfinance.transaction_service.config;
+
+/**
+ * Per-thread routing hint for read-only transactions.
+ * When pinned, read-only work goes to the primary instead of the replica
+ * so a user always sees their own recent writes.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {}
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+}
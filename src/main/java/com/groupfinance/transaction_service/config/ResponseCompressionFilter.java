@@ -0,0 +1,83 @@
+package com.groupfinance.transaction_service.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Gzips list responses for clients that accept it, once the body reaches app.compression.min-response-size
+ * (below that the gzip framing and CPU aren't worth it). The body is buffered first - list endpoints build
+ * the whole page in memory anyway - so the size is known before choosing. Responses that already carry a
+ * Content-Encoding (precompressed pages) pass through untouched.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private final GzipCompressorPool compressorPool;
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+
+    public ResponseCompressionFilter(GzipCompressorPool compressorPool, int minResponseSize, List<MediaType> mimeTypes) {
+        this.compressorPool = compressorPool;
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, buffered);
+        } finally {
+            if (shouldCompress(buffered)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                try (InputStream body = buffered.getContentInputStream()) {
+                    compressorPool.gzip(body, response.getOutputStream());
+                }
+            } else {
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean shouldCompress(ContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK
+                || response.getContentSize() < minResponseSize
+                || response.getHeader(HttpHeaders.CONTENT_ENCODING) != null
+                || response.getContentType() == null) {
+            return false;
+        }
+        MediaType contentType = MediaType.parseMediaType(response.getContentType());
+        return mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    /**
+     * gzip listed without q=0 ("gzip, deflate, br" / "gzip;q=0.8")
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,127 @@
+package com.groupfinance.transaction_service.config;
+
+import com.groupfinance.transaction_service.service.ConnectionUsageTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spreads the transactions store over several databases, one per shard, chosen by
+ * ShardRoutingContext (see ShardRouter). Only active when app.sharding.enabled=true
+ * (see the "sharded" profile); not combined with the replica profile.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardDataSourceConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, ConnectionUsageTracker tracker) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i + "-pool");
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            pool.setMaximumPoolSize(properties.getPoolSize());
+            // Hibernate is told the provider disables auto-commit
+            pool.setAutoCommit(false);
+            pool.setMetricsTrackerFactory(tracker);
+            shards.add(pool);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * The lazy proxy defers connection acquisition until the first statement,
+     * by which point the caller has chosen a shard
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * spring.jpa.hibernate.ddl-auto only reaches shard 0; bring the other shards'
+     * schemas up to date while the session factory is being built
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(ShardRoutingDataSource shardRoutingDataSource) {
+        Integrator shardSchemas = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+                settings.put(AvailableSettings.HBM2DDL_AUTO, "update");
+                settings.remove(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION);
+                for (int shard = 1; shard < shardRoutingDataSource.getShardCount(); shard++) {
+                    ShardRoutingContext.set(shard);
+                    try {
+                        SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings, action -> {});
+                    } finally {
+                        ShardRoutingContext.clear();
+                    }
+                }
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return hibernateProperties -> hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+            (IntegratorProvider) () -> List.of(shardSchemas));
+    }
+
+    /**
+     * Routes each connection request to the shard chosen on the current thread
+     */
+    public static class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+        private final List<HikariDataSource> shards;
+
+        public ShardRoutingDataSource(List<HikariDataSource> shards) {
+            this.shards = shards;
+            Map<Object, Object> targets = new HashMap<>();
+            for (int i = 0; i < shards.size(); i++) {
+                targets.put(i, shards.get(i));
+            }
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(shards.get(0));
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return ShardRoutingContext.currentShard();
+        }
+
+        public int getShardCount() {
+            return shards.size();
+        }
+
+        @Override
+        public void close() {
+            shards.forEach(HikariDataSource::close);
+        }
+    }
+}
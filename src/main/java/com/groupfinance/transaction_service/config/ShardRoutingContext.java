@@ -0,0 +1,33 @@
+package com.groupfinance.transaction_service.config;
+
+/**
+ * Per-thread shard for the transactions store. Unset means shard 0, which also
+ * holds the tables that aren't sharded (leases, cluster nodes, STK retry queue).
+ */
+public final class ShardRoutingContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardRoutingContext() {}
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+
+    public static Integer get() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static int currentShard() {
+        Integer shard = CURRENT_SHARD.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static void clear() {
+        CURRENT_SHARD.remove();
+    }
+}
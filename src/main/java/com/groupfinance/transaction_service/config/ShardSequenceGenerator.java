@@ -0,0 +1,51 @@
+package com.groupfinance.transaction_service.config;
+
+import com.groupfinance.transaction_service.model.ShardSequence;
+import com.groupfinance.transaction_service.service.ShardRouter;
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every shard has its own copy of the sequence, so each shard gets its own pooled block
+ * of values (drawn on the shard chosen by ShardRoutingContext) and the value is placed in
+ * that shard's ID range. With a single shard this is a plain pooled sequence.
+ */
+public class ShardSequenceGenerator extends SequenceStyleGenerator {
+
+    private final ShardSequence sequence;
+    private final Map<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+
+    public ShardSequenceGenerator(ShardSequence sequence, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequence = sequence;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.put(SEQUENCE_PARAM, sequence.name());
+        parameters.put(INCREMENT_PARAM, String.valueOf(sequence.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardRoutingContext.currentShard();
+        DatabaseStructure structure = getDatabaseStructure();
+        Optimizer optimizer = optimizers.computeIfAbsent(shard, k -> OptimizerFactory.buildOptimizer(
+            StandardOptimizerDescriptor.POOLED, Long.class, structure.getIncrementSize(), structure.getInitialValue()));
+        long value = ((Number) optimizer.generate(structure.buildCallback(session))).longValue();
+        return ShardRouter.firstIdOf(shard) + value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.groupfinance.transaction_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group-sharded storage for the transactions table, e.g.
+ * app.sharding.enabled=true
+ * app.sharding.shards[0].url=jdbc:h2:mem:shard0
+ * app.sharding.shards[1].url=jdbc:h2:mem:shard1
+ * When disabled everything lives on spring.datasource, which acts as the only shard.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Points per shard on the consistent-hash ring; more points, more even spread of groups
+    private int virtualNodes = 128;
+
+    private int poolSize = 10;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public int getShardCount() {
+        return enabled ? Math.max(shards.size(), 1) : 1;
+    }
+
+    public static class Shard {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package com.groupfinance.transaction_service.config;
 
+import com.groupfinance.transaction_service.service.ReadYourWritesTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig {
 
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(ReadYourWritesTracker readYourWritesTracker) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
@@ -19,6 +27,28 @@ public class WebConfig {
                         .allowedHeaders("*")
                         .allowCredentials(false);
             }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesTracker))
+                        .addPathPatterns("/api/**");
+            }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Gzip for the list endpoints (app.compression.url-patterns); small and single-item responses aren't worth it
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(
+            GzipCompressorPool compressorPool,
+            @Value("${app.compression.min-response-size:2048}") int minResponseSize,
+            @Value("${app.compression.mime-types:application/json}") List<String> mimeTypes,
+            @Value("${app.compression.url-patterns:/api/transactions}") String[] urlPatterns) {
+        FilterRegistrationBean<ResponseCompressionFilter> registration = new FilterRegistrationBean<>(
+            new ResponseCompressionFilter(compressorPool, minResponseSize, MediaType.parseMediaTypes(mimeTypes)));
+        registration.addUrlPatterns(urlPatterns);
+        return registration;
+    }
+}
@@ -0,0 +1,123 @@
+package com.groupfinance.transaction_service.controller;
+
+import com.groupfinance.transaction_service.config.GzipCompressorPool;
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.dto.ConnectionUsageStats;
+import com.groupfinance.transaction_service.service.AnomalyDetector;
+import com.groupfinance.transaction_service.service.ClusterLeaseManager;
+import com.groupfinance.transaction_service.service.ConnectionUsageTracker;
+import com.groupfinance.transaction_service.service.MpesaGateway;
+import com.groupfinance.transaction_service.service.PrecompressedPageCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private final ConnectionUsageTracker connectionUsageTracker;
+    private final MpesaGateway mpesaGateway;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final AnomalyDetector anomalyDetector;
+    private final GzipCompressorPool compressorPool;
+    private final PrecompressedPageCache precompressedPageCache;
+
+    @Autowired
+    public DiagnosticsController(ConnectionUsageTracker connectionUsageTracker, MpesaGateway mpesaGateway,
+                                 ClusterLeaseManager clusterLeaseManager,
+                                 AnomalyDetector anomalyDetector, GzipCompressorPool compressorPool,
+                                 PrecompressedPageCache precompressedPageCache) {
+        this.connectionUsageTracker = connectionUsageTracker;
+        this.mpesaGateway = mpesaGateway;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.anomalyDetector = anomalyDetector;
+        this.compressorPool = compressorPool;
+        this.precompressedPageCache = precompressedPageCache;
+    }
+
+    /**
+     * Per-method pool wait time and connection hold time since startup (or last reset)
+     */
+    @GetMapping("/connections")
+    public ResponseEntity<ApiResponse<List<ConnectionUsageStats>>> getConnectionUsage() {
+        return ResponseEntity.ok(ApiResponse.success("Connection usage retrieved", connectionUsageTracker.getStats()));
+    }
+
+    /**
+     * Live snapshot of each connection pool
+     */
+    @GetMapping("/pools")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Integer>>>> getPools() {
+        Map<String, Map<String, Integer>> pools = new LinkedHashMap<>();
+        connectionUsageTracker.getPools().forEach((name, stats) -> {
+            Map<String, Integer> snapshot = new LinkedHashMap<>();
+            snapshot.put("total", stats.getTotalConnections());
+            snapshot.put("active", stats.getActiveConnections());
+            snapshot.put("idle", stats.getIdleConnections());
+            snapshot.put("pending", stats.getPendingThreads());
+            snapshot.put("max", stats.getMaxConnections());
+            pools.put(name, snapshot);
+        });
+        return ResponseEntity.ok(ApiResponse.success("Connection pools retrieved", pools));
+    }
+
+    /**
+     * Reset connection usage counters (e.g. before a load run)
+     */
+    @DeleteMapping("/connections")
+    public ResponseEntity<ApiResponse<String>> resetConnectionUsage() {
+        connectionUsageTracker.reset();
+        return ResponseEntity.ok(ApiResponse.success("Connection usage reset", null));
+    }
+
+    /**
+     * Circuit breaker state and adaptive concurrency limit around M-Pesa
+     */
+    @GetMapping("/mpesa")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMpesaStatus() {
+        return ResponseEntity.ok(ApiResponse.success("M-Pesa gateway status retrieved", mpesaGateway.getStatus()));
+    }
+
+    /**
+     * Which transaction partitions this node currently holds leases on
+     */
+    @GetMapping("/cluster")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getClusterStatus() {
+        Map<String, Object> cluster = new LinkedHashMap<>();
+        cluster.put("nodeId", clusterLeaseManager.getNodeId());
+        cluster.put("partitions", clusterLeaseManager.getPartitionCount());
+        cluster.put("ownedPartitions", clusterLeaseManager.getOwnedPartitions());
+        return ResponseEntity.ok(ApiResponse.success("Cluster status retrieved", cluster));
+    }
+
+    /**
+     * Anomaly detector decisions (screened / flagged / held, hits per rule) and screening time
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAnomalyStatus() {
+        return ResponseEntity.ok(ApiResponse.success("Anomaly detection status retrieved", anomalyDetector.getStatus()));
+    }
+
+    /**
+     * Gzip responses and bytes saved since startup, plus the precompressed archive page cache
+     */
+    @GetMapping("/compression")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCompressionStatus() {
+        long bytesIn = compressorPool.getBytesIn();
+        long bytesOut = compressorPool.getBytesOut();
+        Map<String, Object> compression = new LinkedHashMap<>();
+        compression.put("compressed", compressorPool.getResponses());
+        compression.put("bytesIn", bytesIn);
+        compression.put("bytesOut", bytesOut);
+        compression.put("ratio", bytesIn > 0 ? (double) bytesOut / bytesIn : null);
+        compression.put("precompressedPages", precompressedPageCache.size());
+        compression.put("precompressedHits", precompressedPageCache.getHits());
+        compression.put("precompressedMisses", precompressedPageCache.getMisses());
+        return ResponseEntity.ok(ApiResponse.success("Compression status retrieved", compression));
+    }
+}
@@ -0,0 +1,44 @@
+package com.groupfinance.transaction_service.controller;
+
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.service.MpesaMockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TESTING ONLY: fault injection into the M-Pesa mock, mapped only under the dev and test profiles
+ */
+@RestController
+@Profile({"dev", "test"})
+@RequestMapping("/api/diagnostics/mpesa")
+public class MpesaFaultController {
+
+    private final MpesaMockService mpesaMockService;
+
+    @Autowired
+    public MpesaFaultController(MpesaMockService mpesaMockService) {
+        this.mpesaMockService = mpesaMockService;
+    }
+
+    /**
+     * Inject latency spikes and failures into the M-Pesa mock
+     */
+    @PostMapping("/faults")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> injectMpesaFaults(
+            @RequestParam(required = false) Long latencyMs,
+            @RequestParam(required = false) Double failureRate,
+            @RequestParam(required = false) Integer failureBurst) {
+        
+        mpesaMockService.injectFaults(latencyMs, failureRate, failureBurst);
+        Map<String, Object> faults = new LinkedHashMap<>();
+        faults.put("latencyMs", mpesaMockService.getInjectedLatencyMillis());
+        faults.put("failureRate", mpesaMockService.getInjectedFailureRate());
+        faults.put("failureBurst", mpesaMockService.getInjectedFailureBurst());
+        return ResponseEntity.ok(ApiResponse.success("M-Pesa faults updated", faults));
+    }
+}
@@ -1,26 +1,69 @@
 package com.groupfinance.transaction_service.controller;
 
+import com.groupfinance.transaction_service.config.ResponseCompressionFilter;
 import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.dto.CorrectionChainResponse;
 import com.groupfinance.transaction_service.dto.TransactionRequest;
 import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.dto.TransactionStats;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
 import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.service.PrecompressedPageCache;
+import com.groupfinance.transaction_service.service.PrecompressedPageCache.CachedPage;
+import com.groupfinance.transaction_service.service.RateLimiter;
+import com.groupfinance.transaction_service.service.TerminalResponseCache;
+import com.groupfinance.transaction_service.service.TerminalResponseCache.CachedResponse;
 import com.groupfinance.transaction_service.service.TransactionService;
+import com.groupfinance.transaction_service.service.TransactionStatsService;
+import com.groupfinance.transaction_service.validation.TransactionRequestValidator;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final String TRANSACTION_RETRIEVED = "Transaction retrieved successfully";
+    private static final int MAX_SEARCH_RESULTS = 200;
+    private static final String ARCHIVE_RETRIEVED = "Archived transactions retrieved successfully";
+    private static final int DEFAULT_STATS_DAYS = 30;
+
     private final TransactionService transactionService;
+    private final TerminalResponseCache terminalResponseCache;
+    private final PrecompressedPageCache precompressedPageCache;
+    private final RateLimiter rateLimiter;
+    private final TransactionRequestValidator transactionRequestValidator;
+    private final TransactionStatsService transactionStatsService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TerminalResponseCache terminalResponseCache,
+                                 PrecompressedPageCache precompressedPageCache, RateLimiter rateLimiter,
+                                 TransactionRequestValidator transactionRequestValidator,
+                                 TransactionStatsService transactionStatsService) {
         this.transactionService = transactionService;
+        this.terminalResponseCache = terminalResponseCache;
+        this.precompressedPageCache = precompressedPageCache;
+        this.rateLimiter = rateLimiter;
+        this.transactionRequestValidator = transactionRequestValidator;
+        this.transactionStatsService = transactionStatsService;
+    }
+
+    /**
+     * @Valid TransactionRequest bodies go through the fast-path validator (Bean Validation only on failure)
+     */
+    @InitBinder("transactionRequest")
+    public void initTransactionRequestBinder(WebDataBinder binder) {
+        binder.setValidator(transactionRequestValidator);
     }
 
     /**
@@ -31,6 +74,7 @@ public class TransactionController {
             @Valid @RequestBody TransactionRequest request,
             @RequestHeader("X-User-Id") String userId) {
         
+        rateLimiter.acquire("create", userId, request.getMpesaPhoneNumber());
         TransactionResponse response = transactionService.initiateTransaction(request, userId);
         return ResponseEntity.ok(ApiResponse.success("Transaction initiated successfully", response));
     }
@@ -39,32 +83,87 @@ public class TransactionController {
      * Get all transactions for the current user
      */
     @GetMapping("/my-transactions")
-    public ResponseEntity<ApiResponse<List<TransactionResponse>>> getUserTransactions(
+    public ResponseEntity<ApiResponse<List<TransactionSummary>>> getUserTransactions(
             @RequestHeader("X-User-Id") String userId) {
         
-        List<TransactionResponse> transactions = transactionService.getUserTransactions(userId);
+        List<TransactionSummary> transactions = transactionService.getUserTransactions(userId);
         return ResponseEntity.ok(ApiResponse.success("User transactions retrieved successfully", transactions));
     }
 
     /**
-     * Get all transactions (for dashboard - will be filtered by group later)
+     * Get all transactions of the current group (for dashboard)
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TransactionResponse>>> getAllTransactions() {
-        List<TransactionResponse> transactions = transactionService.getAllTransactions();
+    public ResponseEntity<ApiResponse<List<TransactionSummary>>> getAllTransactions(
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        List<TransactionSummary> transactions = transactionService.getAllTransactions(groupId);
         return ResponseEntity.ok(ApiResponse.success("All transactions retrieved successfully", transactions));
     }
 
+    /**
+     * Search transactions by description, category or M-Pesa receipt (every word matched as a prefix),
+     * within the current group if one is given, otherwise among the user's own
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<TransactionSummary>>> searchTransactions(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestHeader("X-User-Id") String userId,
+            @RequestHeader(value = "X-Group-Id", required = false) String groupId) {
+        
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<TransactionSummary> transactions = transactionService.searchTransactions(query, userId, groupId, cappedLimit);
+        return ResponseEntity.ok(ApiResponse.success("Search results retrieved successfully", transactions));
+    }
+
+    /**
+     * Dashboard statistics of the current group's completed transactions over [from, to] (by creation
+     * day, default the last 30 days): counts, totals, distinct payers and phone numbers, and amount
+     * percentiles, overall, per category and per day. Distinct counts and percentiles are estimates.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<TransactionStats>> getTransactionStats(
+            @RequestHeader("X-Group-Id") String groupId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_STATS_DAYS - 1);
+        TransactionStats stats = transactionStatsService.getStats(groupId, start, end);
+        return ResponseEntity.ok(ApiResponse.success("Transaction stats retrieved successfully", stats));
+    }
+
     /**
      * Get a specific transaction by ID
      */
     @GetMapping("/{transactionId}")
-    public ResponseEntity<ApiResponse<TransactionResponse>> getTransactionById(
+    public ResponseEntity<?> getTransactionById(
             @PathVariable Long transactionId,
-            @RequestHeader("X-User-Id") String userId) {
+            @RequestHeader("X-User-Id") String userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        
+        // Terminal transactions never change: serve cached JSON bytes (or 304) without touching the DB.
+        // Clients that don't take JSON go through normal content negotiation instead
+        boolean cacheable = acceptsJson(accept) && !wantsBinary(accept);
+        CachedResponse cached = cacheable ? terminalResponseCache.get(transactionId, userId) : null;
+        if (cached == null) {
+            TransactionResponse transaction = transactionService.getTransactionById(transactionId, userId);
+            cached = cacheable ? terminalResponseCache.putIfTerminal(transaction, TRANSACTION_RETRIEVED) : null;
+            if (cached == null) {
+                return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(ApiResponse.success(TRANSACTION_RETRIEVED, transaction));
+            }
+        }
         
-        TransactionResponse transaction = transactionService.getTransactionById(transactionId, userId);
-        return ResponseEntity.ok(ApiResponse.success("Transaction retrieved successfully", transaction));
+        // A 200 carrying an ETag is matched against If-None-Match (weak validators, lists, *) by Spring MVC,
+        // which answers 304 without writing the body
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT)
+            .eTag(cached.etag())
+            .body(cached.body());
     }
 
     /**
@@ -88,18 +187,73 @@ public class TransactionController {
             @Valid @RequestBody TransactionRequest request,
             @RequestHeader("X-User-Id") String userId) {
         
+        rateLimiter.acquire("correction", userId, request.getMpesaPhoneNumber());
         TransactionResponse response = transactionService.createCorrectionTransaction(originalTransactionId, request, userId);
         return ResponseEntity.ok(ApiResponse.success("Correction transaction created successfully", response));
     }
 
     /**
-     * Get transactions by status
+     * Get archived (cold) transactions created in a month, e.g. /archive/2025-01
+     */
+    @GetMapping("/archive/{month}")
+    public ResponseEntity<?> getArchivedTransactions(
+            @PathVariable String month,
+            @RequestHeader("X-Group-Id") String groupId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        // Sealed months never change: serve the gzip bytes built on first download (or 304)
+        if (ResponseCompressionFilter.acceptsGzip(acceptEncoding) && !wantsBinary(accept) && acceptsJson(accept)) {
+            CachedPage page = precompressedPageCache.getSealedArchivePage(groupId, month, ARCHIVE_RETRIEVED);
+            if (page != null) {
+                return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .eTag(page.etag())
+                    .body(page.gzippedBody());
+            }
+        }
+        
+        List<TransactionResponse> transactions = transactionService.getArchivedTransactions(groupId, month);
+        return ResponseEntity.ok()
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(ApiResponse.success(ARCHIVE_RETRIEVED, transactions));
+    }
+
+    /**
+     * Get the correction tree and net effective amount of one of the current group's transactions
+     */
+    @GetMapping("/{transactionId}/correction-chain")
+    public ResponseEntity<ApiResponse<CorrectionChainResponse>> getCorrectionChain(
+            @PathVariable Long transactionId,
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        CorrectionChainResponse chain = transactionService.getCorrectionChain(transactionId, groupId);
+        return ResponseEntity.ok(ApiResponse.success("Correction chain retrieved successfully", chain));
+    }
+
+    /**
+     * Get correction trees for several of the current group's transactions in one call
+     */
+    @GetMapping("/correction-chains")
+    public ResponseEntity<ApiResponse<List<CorrectionChainResponse>>> getCorrectionChains(
+            @RequestParam List<Long> ids,
+            @RequestHeader("X-Group-Id") String groupId) {
+        
+        List<CorrectionChainResponse> chains = transactionService.getCorrectionChains(ids, groupId);
+        return ResponseEntity.ok(ApiResponse.success("Correction chains retrieved successfully", chains));
+    }
+
+    /**
+     * Get the current group's transactions by status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<List<TransactionResponse>>> getTransactionsByStatus(
-            @PathVariable TransactionStatus status) {
+    public ResponseEntity<ApiResponse<List<TransactionSummary>>> getTransactionsByStatus(
+            @PathVariable TransactionStatus status,
+            @RequestHeader("X-Group-Id") String groupId) {
         
-        List<TransactionResponse> transactions = transactionService.getTransactionsByStatus(status);
+        List<TransactionSummary> transactions = transactionService.getTransactionsByStatus(groupId, status);
         return ResponseEntity.ok(ApiResponse.success("Transactions retrieved by status", transactions));
     }
 
@@ -125,4 +279,26 @@ public class TransactionController {
     public ResponseEntity<ApiResponse<String>> healthCheck() {
         return ResponseEntity.ok(ApiResponse.success("Transaction Service is running", null));
     }
-}
\ No newline at end of file
+
+    // Precompressed pages are JSON; CBOR/Smile clients go through normal negotiation
+    private static boolean wantsBinary(String accept) {
+        return accept != null && (accept.contains("cbor") || accept.contains("smile"));
+    }
+
+    // Whether pre-rendered application/json bytes are an acceptable answer (no Accept header means anything is)
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.getQualityValue() > 0 && mediaType.includes(MediaType.APPLICATION_JSON)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Let content negotiation reject it
+        }
+        return false;
+    }
+}
@@ -1,13 +1,16 @@
 package com.groupfinance.transaction_service.dto;
 
+import java.time.LocalDateTime;
+
 public class ApiResponse<T> {
     private boolean success;
     private String message;
     private T data;
-    private String timestamp;
+    // Typed so each wire format encodes it natively: ISO text in JSON, epoch millis in CBOR/Smile
+    private LocalDateTime timestamp;
 
     public ApiResponse() {
-        this.timestamp = java.time.LocalDateTime.now().toString();
+        this.timestamp = LocalDateTime.now();
     }
 
     // Success response
@@ -50,11 +53,11 @@ public class ApiResponse<T> {
         this.data = data;
     }
 
-    public String getTimestamp() {
+    public LocalDateTime getTimestamp() {
         return timestamp;
     }
 
-    public void setTimestamp(String timestamp) {
+    public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
 
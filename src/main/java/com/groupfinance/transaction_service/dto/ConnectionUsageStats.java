@@ -0,0 +1,81 @@
+package com.groupfinance.transaction_service.dto;
+
+public class ConnectionUsageStats {
+
+    private String method;
+    private long acquisitions;
+    private long totalWaitMillis;
+    private long maxWaitMillis;
+    private long totalHoldMillis;
+    private long maxHoldMillis;
+    private double avgHoldMillis;
+    private long timeouts;
+
+    // Default constructor
+    public ConnectionUsageStats() {}
+
+    // Getters and Setters
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    public void setAcquisitions(long acquisitions) {
+        this.acquisitions = acquisitions;
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public void setTotalWaitMillis(long totalWaitMillis) {
+        this.totalWaitMillis = totalWaitMillis;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public long getTotalHoldMillis() {
+        return totalHoldMillis;
+    }
+
+    public void setTotalHoldMillis(long totalHoldMillis) {
+        this.totalHoldMillis = totalHoldMillis;
+    }
+
+    public long getMaxHoldMillis() {
+        return maxHoldMillis;
+    }
+
+    public void setMaxHoldMillis(long maxHoldMillis) {
+        this.maxHoldMillis = maxHoldMillis;
+    }
+
+    public double getAvgHoldMillis() {
+        return avgHoldMillis;
+    }
+
+    public void setAvgHoldMillis(double avgHoldMillis) {
+        this.avgHoldMillis = avgHoldMillis;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public void setTimeouts(long timeouts) {
+        this.timeouts = timeouts;
+    }
+}
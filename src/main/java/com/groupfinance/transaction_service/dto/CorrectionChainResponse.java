@@ -0,0 +1,46 @@
+package com.groupfinance.transaction_service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CorrectionChainResponse {
+
+    private TransactionResponse transaction;
+
+    // Sum of COMPLETED amounts in this node and every correction below it
+    private Double netAmount;
+
+    private List<CorrectionChainResponse> corrections = new ArrayList<>();
+
+    // Default constructor
+    public CorrectionChainResponse() {}
+
+    public CorrectionChainResponse(TransactionResponse transaction) {
+        this.transaction = transaction;
+    }
+
+    // Getters and Setters
+    public TransactionResponse getTransaction() {
+        return transaction;
+    }
+
+    public void setTransaction(TransactionResponse transaction) {
+        this.transaction = transaction;
+    }
+
+    public Double getNetAmount() {
+        return netAmount;
+    }
+
+    public void setNetAmount(Double netAmount) {
+        this.netAmount = netAmount;
+    }
+
+    public List<CorrectionChainResponse> getCorrections() {
+        return corrections;
+    }
+
+    public void setCorrections(List<CorrectionChainResponse> corrections) {
+        this.corrections = corrections;
+    }
+}
@@ -0,0 +1,9 @@
+package com.groupfinance.transaction_service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a pending transaction's persisted auto-completion deadline (recovery reads only these two columns)
+ */
+public record PendingDeadline(Long id, LocalDateTime completionDueAt) {
+}
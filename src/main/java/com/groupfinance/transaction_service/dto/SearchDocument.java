@@ -0,0 +1,19 @@
+package com.groupfinance.transaction_service.dto;
+
+import com.groupfinance.transaction_service.model.TransactionCategory;
+
+import java.time.LocalDateTime;
+
+/**
+ * The searchable fields of a transaction, read by a JPQL constructor expression
+ * when the search index catches up with the table
+ */
+public record SearchDocument(
+    Long id,
+    String createdByUserId,
+    String groupId,
+    String description,
+    TransactionCategory category,
+    String mpesaReceiptNumber,
+    LocalDateTime updatedAt
+) {}
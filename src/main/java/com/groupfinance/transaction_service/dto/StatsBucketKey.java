@@ -0,0 +1,11 @@
+package com.groupfinance.transaction_service.dto;
+
+import com.groupfinance.transaction_service.model.TransactionCategory;
+
+import java.time.LocalDate;
+
+/**
+ * One stats bucket (group, createdAt day, category), read by a JPQL constructor expression when compacting
+ */
+public record StatsBucketKey(String groupId, LocalDate day, TransactionCategory category) {
+}
@@ -1,17 +1,22 @@
 package com.groupfinance.transaction_service.dto;
 
 import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.validation.MpesaAmount;
+import com.groupfinance.transaction_service.validation.MpesaPhoneNumber;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
 public class TransactionRequest {
     
+    // The single validation stage for requests (@Valid in the controller); constraint metadata is
+    // built once per class by the shared Validator
     @NotNull(message = "Amount is required")
-    @Positive(message = "Amount must be positive")
+    @MpesaAmount
     private Double amount;
     
     @NotBlank(message = "MPesa phone number is required")
+    @MpesaPhoneNumber
     private String mpesaPhoneNumber;
     
     @NotBlank(message = "Description is required")
@@ -20,6 +25,10 @@ public class TransactionRequest {
     @NotNull(message = "Category is required")
     private TransactionCategory category;
     
+    @NotBlank(message = "Group ID is required")
+    @Size(max = 64, message = "Group ID must be at most 64 characters")
+    private String groupId;
+    
     // For correction transactions - optional
     private Long originalTransactionId;
 
@@ -67,6 +76,14 @@ public class TransactionRequest {
         this.category = category;
     }
 
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
     public Long getOriginalTransactionId() {
         return originalTransactionId;
     }
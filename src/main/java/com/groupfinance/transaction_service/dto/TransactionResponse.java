@@ -19,6 +19,7 @@ public class TransactionResponse {
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
     private String createdByUserId;
+    private String groupId;
     private Long originalTransactionId;
 
     // Default constructor
@@ -113,6 +114,14 @@ public class TransactionResponse {
         this.createdByUserId = createdByUserId;
     }
 
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
     public Long getOriginalTransactionId() {
         return originalTransactionId;
     }
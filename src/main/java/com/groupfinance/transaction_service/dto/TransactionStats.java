@@ -0,0 +1,30 @@
+package com.groupfinance.transaction_service.dto;
+
+import com.groupfinance.transaction_service.model.TransactionCategory;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Dashboard statistics of a group's COMPLETED transactions over a day range, overall and per
+ * category and day. Counts and totals are exact; distinct counts (about 1.6% error) and amount
+ * percentiles (within 1%) come from merged sketches.
+ */
+public record TransactionStats(
+    LocalDate from,
+    LocalDate to,
+    Summary overall,
+    Map<TransactionCategory, Summary> byCategory,
+    Map<LocalDate, Summary> byDay
+) {
+
+    public record Summary(
+        long transactionCount,
+        double totalAmount,
+        long distinctPayers,
+        long distinctPhoneNumbers,
+        Double p50Amount,
+        Double p90Amount,
+        Double p99Amount
+    ) {}
+}
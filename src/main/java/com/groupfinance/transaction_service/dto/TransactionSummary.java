@@ -0,0 +1,28 @@
+package com.groupfinance.transaction_service.dto;
+
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable read-only view of a transaction for listing endpoints.
+ * Built directly by JPQL constructor expressions - no managed entity, no field copying.
+ * Serializes to the same JSON shape as TransactionResponse.
+ */
+public record TransactionSummary(
+    Long id,
+    Double amount,
+    String description,
+    TransactionCategory category,
+    TransactionType type,
+    TransactionStatus status,
+    String mpesaPhoneNumber,
+    String mpesaReceiptNumber,
+    LocalDateTime createdAt,
+    LocalDateTime completedAt,
+    String createdByUserId,
+    String groupId,
+    Long originalTransactionId
+) {}
@@ -1,6 +1,7 @@
 package com.groupfinance.transaction_service.exception;
 
 import com.groupfinance.transaction_service.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -41,6 +42,31 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Handle rate limiting
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<String>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    // Handle transactions held by the anomaly detector
+    @ExceptionHandler(TransactionHeldException.class)
+    public ResponseEntity<ApiResponse<String>> handleTransactionHeld(TransactionHeldException ex) {
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage());
+        return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
+    }
+
+    // Handle M-Pesa circuit open / bulkhead full
+    @ExceptionHandler(MpesaUnavailableException.class)
+    public ResponseEntity<ApiResponse<String>> handleMpesaUnavailable(MpesaUnavailableException ex) {
+        ApiResponse<String> response = ApiResponse.error(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     // Handle all other exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGenericException(Exception ex) {
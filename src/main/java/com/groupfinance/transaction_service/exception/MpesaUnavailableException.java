@@ -0,0 +1,15 @@
+package com.groupfinance.transaction_service.exception;
+
+public class MpesaUnavailableException extends TransactionException {
+    
+    private final long retryAfterSeconds;
+    
+    public MpesaUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
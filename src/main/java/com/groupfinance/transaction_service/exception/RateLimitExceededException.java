@@ -0,0 +1,15 @@
+package com.groupfinance.transaction_service.exception;
+
+public class RateLimitExceededException extends TransactionException {
+    
+    private final long retryAfterSeconds;
+    
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
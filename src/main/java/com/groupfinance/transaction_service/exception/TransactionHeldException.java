@@ -0,0 +1,8 @@
+package com.groupfinance.transaction_service.exception;
+
+public class TransactionHeldException extends TransactionException {
+
+    public TransactionHeldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.groupfinance.transaction_service.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Heartbeat row for a live service instance; used to work out each node's fair share of partitions
+ */
+@Entity
+@Table(name = "cluster_nodes")
+public class ClusterNode {
+
+    @Id
+    private String nodeId;
+
+    // Epoch millis; the node counts as dead once this passes
+    @Column(nullable = false)
+    private long heartbeatUntil;
+
+    // Snowflake worker ID claimed by this node (null when configured explicitly); unique across rows
+    @Column(unique = true)
+    private Integer workerId;
+
+    // Constructors
+    public ClusterNode() {}
+
+    public ClusterNode(String nodeId, long heartbeatUntil, Integer workerId) {
+        this.nodeId = nodeId;
+        this.heartbeatUntil = heartbeatUntil;
+        this.workerId = workerId;
+    }
+
+    // Getters and Setters
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public long getHeartbeatUntil() { return heartbeatUntil; }
+    public void setHeartbeatUntil(long heartbeatUntil) { this.heartbeatUntil = heartbeatUntil; }
+
+    public Integer getWorkerId() { return workerId; }
+    public void setWorkerId(Integer workerId) { this.workerId = workerId; }
+}
@@ -0,0 +1,39 @@
+package com.groupfinance.transaction_service.model;
+
+import jakarta.persistence.*;
+
+/**
+ * DB-backed lease on one partition of the transaction ID space.
+ * The owning node runs auto-completion timers and stuck-transaction cleanup for that partition.
+ */
+@Entity
+@Table(name = "partition_leases")
+public class PartitionLease {
+
+    @Id
+    private Integer partitionId;
+
+    // Null when the partition is free
+    private String ownerId;
+
+    // Epoch millis; a lease past this point can be taken over by any node
+    @Column(nullable = false)
+    private long leaseUntil;
+
+    // Constructors
+    public PartitionLease() {}
+
+    public PartitionLease(Integer partitionId) {
+        this.partitionId = partitionId;
+    }
+
+    // Getters and Setters
+    public Integer getPartitionId() { return partitionId; }
+    public void setPartitionId(Integer partitionId) { this.partitionId = partitionId; }
+
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+
+    public long getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(long leaseUntil) { this.leaseUntil = leaseUntil; }
+}
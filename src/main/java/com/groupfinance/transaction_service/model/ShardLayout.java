@@ -0,0 +1,49 @@
+package com.groupfinance.transaction_service.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The shard ring the existing data was written with (single row, on shard 0).
+ * Groups are placed by shard count and virtual nodes, so neither may change under existing rows.
+ */
+@Entity
+@Table(name = "shard_layout")
+public class ShardLayout {
+
+    public static final int LAYOUT_ID = 0;
+
+    @Id
+    private Integer id = LAYOUT_ID;
+
+    @Column(nullable = false)
+    private int shardCount;
+
+    @Column(nullable = false)
+    private int virtualNodes;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+
+    // Constructors
+    public ShardLayout() {}
+
+    public ShardLayout(int shardCount, int virtualNodes) {
+        this.shardCount = shardCount;
+        this.virtualNodes = virtualNodes;
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public int getShardCount() { return shardCount; }
+    public void setShardCount(int shardCount) { this.shardCount = shardCount; }
+
+    public int getVirtualNodes() { return virtualNodes; }
+    public void setVirtualNodes(int virtualNodes) { this.virtualNodes = virtualNodes; }
+
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+}
@@ -0,0 +1,23 @@
+package com.groupfinance.transaction_service.model;
+
+import com.groupfinance.transaction_service.config.ShardSequenceGenerator;
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Pooled database sequence whose values are offset by the shard they were drawn on,
+ * so an ID alone tells which shard holds the row (see ShardRouter)
+ */
+@IdGeneratorType(ShardSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardSequence {
+
+    String name();
+
+    int allocationSize() default 50;
+}
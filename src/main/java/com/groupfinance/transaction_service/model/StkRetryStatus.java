@@ -0,0 +1,8 @@
+package com.groupfinance.transaction_service.model;
+
+public enum StkRetryStatus {
+    QUEUED,        // Waiting for its next attempt
+    IN_PROGRESS,   // Claimed by a worker
+    DONE,          // STK push sent (or transaction no longer pending)
+    DEAD_LETTER    // Gave up after max attempts
+}
@@ -0,0 +1,141 @@
+package com.groupfinance.transaction_service.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Durable retry entry for a transaction whose STK push failed transiently
+ */
+@Entity
+@Table(name = "stk_retry_queue", indexes = {
+    @Index(name = "idx_stk_retry_due", columnList = "status, nextAttemptAt"),
+    @Index(name = "idx_stk_retry_claim", columnList = "claimToken")
+})
+public class StkRetryTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stk_retry_queue_seq")
+    @SequenceGenerator(name = "stk_retry_queue_seq", sequenceName = "stk_retry_queue_seq", allocationSize = 50)
+    private Long id;
+
+    // One retry entry per transaction - retries never create new transaction rows
+    @Column(nullable = false, unique = true)
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StkRetryStatus status = StkRetryStatus.QUEUED;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private String lastError;
+
+    // Set when a worker claims the entry
+    private String claimToken;
+    private LocalDateTime claimedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public StkRetryTask() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public StkRetryTask(Long transactionId, int attempts, LocalDateTime nextAttemptAt, String lastError) {
+        this();
+        this.transactionId = transactionId;
+        this.attempts = attempts;
+        this.nextAttemptAt = nextAttemptAt;
+        this.lastError = lastError;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public StkRetryStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(StkRetryStatus status) {
+        this.status = status;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -4,11 +4,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_status_created", columnList = "status, createdAt"),
+    @Index(name = "idx_transactions_status_due", columnList = "status, completionDueAt"),
+    @Index(name = "idx_transactions_group_created", columnList = "groupId, createdAt"),
+    @Index(name = "idx_transactions_group_status", columnList = "groupId, status, createdAt"),
+    @Index(name = "idx_transactions_user", columnList = "createdByUserId"),
+    @Index(name = "idx_transactions_updated", columnList = "updatedAt"),
+    @Index(name = "idx_transactions_original", columnList = "originalTransactionId")
+})
 public class Transaction {
 
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts; offset per shard
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardSequence(name = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -42,10 +51,17 @@ public class Transaction {
     private LocalDateTime updatedAt;
     private LocalDateTime completedAt;
 
+    // Persisted auto-completion deadline so a restart (or another node) can re-arm the timer
+    private LocalDateTime completionDueAt;
+
     // User who initiated the transaction
     @Column(nullable = false)
     private String createdByUserId;
 
+    // Group the transaction belongs to - dashboards and sharding are scoped by it
+    @Column(nullable = false, length = 64)
+    private String groupId;
+
     // For correction transactions - links to original transaction
     private Long originalTransactionId;
 
@@ -183,6 +199,14 @@ public class Transaction {
         this.completedAt = completedAt;
     }
 
+    public LocalDateTime getCompletionDueAt() {
+        return completionDueAt;
+    }
+
+    public void setCompletionDueAt(LocalDateTime completionDueAt) {
+        this.completionDueAt = completionDueAt;
+    }
+
     public String getCreatedByUserId() {
         return createdByUserId;
     }
@@ -192,6 +216,15 @@ public class Transaction {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
     public Long getOriginalTransactionId() {
         return originalTransactionId;
     }
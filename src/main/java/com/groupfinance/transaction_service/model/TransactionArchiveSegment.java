@@ -0,0 +1,113 @@
+package com.groupfinance.transaction_service.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold storage for terminal transactions: a GZIP-compressed block of rows
+ * from one createdAt month, covering a contiguous ID range
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+    @Index(name = "idx_archive_month", columnList = "archiveMonth"),
+    @Index(name = "idx_archive_id_range", columnList = "firstTransactionId, lastTransactionId")
+})
+public class TransactionArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_archive_seq")
+    @SequenceGenerator(name = "transactions_archive_seq", sequenceName = "transactions_archive_seq", allocationSize = 10)
+    private Long id;
+
+    // createdAt month of every row in this segment (yyyy-MM)
+    @Column(nullable = false, length = 7)
+    private String archiveMonth;
+
+    @Column(nullable = false)
+    private Long firstTransactionId;
+
+    @Column(nullable = false)
+    private Long lastTransactionId;
+
+    @Column(nullable = false)
+    private int rowCount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public TransactionArchiveSegment() {
+        this.archivedAt = LocalDateTime.now();
+    }
+
+    public TransactionArchiveSegment(String archiveMonth, Long firstTransactionId, Long lastTransactionId,
+                                     int rowCount, byte[] payload) {
+        this();
+        this.archiveMonth = archiveMonth;
+        this.firstTransactionId = firstTransactionId;
+        this.lastTransactionId = lastTransactionId;
+        this.rowCount = rowCount;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getArchiveMonth() {
+        return archiveMonth;
+    }
+
+    public void setArchiveMonth(String archiveMonth) {
+        this.archiveMonth = archiveMonth;
+    }
+
+    public Long getFirstTransactionId() {
+        return firstTransactionId;
+    }
+
+    public void setFirstTransactionId(Long firstTransactionId) {
+        this.firstTransactionId = firstTransactionId;
+    }
+
+    public Long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    public void setLastTransactionId(Long lastTransactionId) {
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,147 @@
+package com.groupfinance.transaction_service.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mergeable statistics for the COMPLETED transactions of one group, createdAt day and category:
+ * exact count and total, HyperLogLog sketches of payers and phone numbers, and a quantile sketch
+ * of amounts. Each completion appends a small row; compaction folds a bucket's rows into one.
+ */
+@Entity
+@Table(name = "transaction_stats", indexes = {
+    @Index(name = "idx_stats_group_day", columnList = "groupId, statsDay, category")
+})
+public class TransactionStatsSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_stats_seq")
+    @SequenceGenerator(name = "transaction_stats_seq", sequenceName = "transaction_stats_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String groupId;
+
+    // DAY is a reserved word in H2
+    @Column(name = "stats_day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionCategory category;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private double totalAmount;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payers;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] phoneNumbers;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] amounts;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public TransactionStatsSketch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public TransactionStatsSketch(String groupId, LocalDate day, TransactionCategory category) {
+        this();
+        this.groupId = groupId;
+        this.day = day;
+        this.category = category;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public TransactionCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TransactionCategory category) {
+        this.category = category;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public byte[] getPayers() {
+        return payers;
+    }
+
+    public void setPayers(byte[] payers) {
+        this.payers = payers;
+    }
+
+    public byte[] getPhoneNumbers() {
+        return phoneNumbers;
+    }
+
+    public void setPhoneNumbers(byte[] phoneNumbers) {
+        this.phoneNumbers = phoneNumbers;
+    }
+
+    public byte[] getAmounts() {
+        return amounts;
+    }
+
+    public void setAmounts(byte[] amounts) {
+        this.amounts = amounts;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.groupfinance.transaction_service.repository;
+
+import com.groupfinance.transaction_service.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+    
+    long countByHeartbeatUntilGreaterThanEqual(long now);
+    
+    @Query("SELECT n.workerId FROM ClusterNode n WHERE n.workerId IS NOT NULL")
+    List<Integer> findClaimedWorkerIds();
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.heartbeatUntil < :now")
+    int deleteExpired(@Param("now") long now);
+}
@@ -0,0 +1,32 @@
+package com.groupfinance.transaction_service.repository;
+
+import com.groupfinance.transaction_service.model.PartitionLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface PartitionLeaseRepository extends JpaRepository<PartitionLease, Integer> {
+    
+    // Take a free or expired partition (or extend our own); 1 row updated means we hold it
+    @Transactional
+    @Modifying
+    @Query("UPDATE PartitionLease l SET l.ownerId = :owner, l.leaseUntil = :until WHERE l.partitionId = :partitionId " +
+           "AND (l.ownerId = :owner OR l.ownerId IS NULL OR l.leaseUntil < :now)")
+    int tryAcquire(@Param("partitionId") Integer partitionId, @Param("owner") String owner,
+                   @Param("until") long until, @Param("now") long now);
+    
+    // Extend every lease this node still holds in one statement
+    @Transactional
+    @Modifying
+    @Query("UPDATE PartitionLease l SET l.leaseUntil = :until WHERE l.ownerId = :owner")
+    int renewAll(@Param("owner") String owner, @Param("until") long until);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE PartitionLease l SET l.ownerId = null, l.leaseUntil = 0 WHERE l.partitionId = :partitionId AND l.ownerId = :owner")
+    int release(@Param("partitionId") Integer partitionId, @Param("owner") String owner);
+}
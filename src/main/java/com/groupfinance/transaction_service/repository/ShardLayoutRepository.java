@@ -0,0 +1,9 @@
+package com.groupfinance.transaction_service.repository;
+
+import com.groupfinance.transaction_service.model.ShardLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ShardLayoutRepository extends JpaRepository<ShardLayout, Integer> {
+}
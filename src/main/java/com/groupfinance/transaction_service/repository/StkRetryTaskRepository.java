@@ -0,0 +1,54 @@
+package com.groupfinance.transaction_service.repository;
+
+import com.groupfinance.transaction_service.model.StkRetryStatus;
+import com.groupfinance.transaction_service.model.StkRetryTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StkRetryTaskRepository extends JpaRepository<StkRetryTask, Long> {
+    
+    // IDs of entries due for another attempt, oldest first
+    @Query("SELECT t.id FROM StkRetryTask t WHERE t.status = :status AND t.nextAttemptAt <= :now ORDER BY t.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") StkRetryStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Claim a batch in one statement; the status check means each entry goes to exactly one worker
+    @Modifying
+    @Query("UPDATE StkRetryTask t SET t.status = :claimed, t.claimToken = :token, t.claimedAt = :now " +
+           "WHERE t.id IN :ids AND t.status = :queued")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now,
+              @Param("queued") StkRetryStatus queued, @Param("claimed") StkRetryStatus claimed);
+    
+    List<StkRetryTask> findByClaimToken(String claimToken);
+    
+    // Return entries claimed by a worker that died mid-attempt
+    @Modifying
+    @Query("UPDATE StkRetryTask t SET t.status = :queued, t.claimToken = null " +
+           "WHERE t.status = :claimed AND t.claimedAt < :staleBefore")
+    int requeueStale(@Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("queued") StkRetryStatus queued, @Param("claimed") StkRetryStatus claimed);
+    
+    // Settle an attempt - only while the worker still holds the claim, so a worker whose claim went stale
+    // (and was re-queued or re-claimed) can't overwrite the entry
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StkRetryTask t SET t.status = :status, t.attempts = :attempts, t.nextAttemptAt = :nextAttemptAt, " +
+           "t.lastError = :lastError, t.claimToken = null, t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.claimToken = :token AND t.status = :claimed")
+    int finish(@Param("id") Long id, @Param("token") String token, @Param("claimed") StkRetryStatus claimed,
+               @Param("status") StkRetryStatus status, @Param("attempts") int attempts,
+               @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError,
+               @Param("now") LocalDateTime now);
+    
+    // Which of these transactions still have a retry outstanding
+    @Query("SELECT t.transactionId FROM StkRetryTask t WHERE t.transactionId IN :transactionIds AND t.status IN :statuses")
+    List<Long> findActiveTransactionIds(@Param("transactionIds") Collection<Long> transactionIds,
+                                        @Param("statuses") Collection<StkRetryStatus> statuses);
+}
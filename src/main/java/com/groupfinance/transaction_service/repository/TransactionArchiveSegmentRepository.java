@@ -0,0 +1,23 @@
+package com.groupfinance.transaction_service.repository;
+
+import com.groupfinance.transaction_service.model.TransactionArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TransactionArchiveSegmentRepository extends JpaRepository<TransactionArchiveSegment, Long> {
+    
+    // Segments for one month (partition pruning for reporting)
+    List<TransactionArchiveSegment> findByArchiveMonthOrderByFirstTransactionIdAsc(String archiveMonth);
+    
+    // Segments from one month onwards (archived corrections of an archived transaction)
+    List<TransactionArchiveSegment> findByArchiveMonthGreaterThanEqualOrderByFirstTransactionIdAsc(String archiveMonth);
+    
+    // Segments whose ID range could contain the transaction
+    @Query("SELECT s FROM TransactionArchiveSegment s WHERE :transactionId BETWEEN s.firstTransactionId AND s.lastTransactionId")
+    List<TransactionArchiveSegment> findSegmentsContaining(@Param("transactionId") Long transactionId);
+}
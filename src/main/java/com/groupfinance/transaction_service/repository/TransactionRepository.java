@@ -1,12 +1,20 @@
 package com.groupfinance.transaction_service.repository;
 
+import com.groupfinance.transaction_service.dto.PendingDeadline;
+import com.groupfinance.transaction_service.dto.SearchDocument;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
 import com.groupfinance.transaction_service.model.Transaction;
 import com.groupfinance.transaction_service.model.TransactionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,9 +36,99 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // Find correction transactions linked to an original transaction
     List<Transaction> findByOriginalTransactionId(Long originalTransactionId);
     
+    // Find corrections for a whole level of a correction tree in one query
+    List<Transaction> findByOriginalTransactionIdIn(Collection<Long> originalTransactionIds);
+    
+    // Corrections pointing into a set of transactions - tells whether a cached correction tree is still current
+    long countByOriginalTransactionIdIn(Collection<Long> originalTransactionIds);
+    
     // Find all transactions ordered by creation date (for dashboard)
     List<Transaction> findAllByOrderByCreatedAtDesc();
     
+    // Oldest terminal transactions created before a cutoff in the given lease partitions (archival candidates),
+    // locked so a concurrent archiver waits and then finds them gone
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.status IN :statuses AND t.createdAt < :cutoff "
+        + "AND MOD(t.id, :partitionCount) IN :partitions ORDER BY t.id")
+    List<Transaction> lockArchivableInPartitions(@Param("statuses") Collection<TransactionStatus> statuses,
+                                                 @Param("cutoff") java.time.LocalDateTime cutoff,
+                                                 @Param("partitionCount") long partitionCount,
+                                                 @Param("partitions") Collection<Long> partitions,
+                                                 Pageable pageable);
+    
+    // Whether anything on the shard is still waiting to be archived
+    boolean existsByStatusInAndCreatedAtBefore(Collection<TransactionStatus> statuses, java.time.LocalDateTime cutoff);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Transactions in a status whose ID hashes into one of the given lease partitions (id mod partitionCount)
+    @Query("SELECT t FROM Transaction t WHERE t.status = :status AND MOD(t.id, :partitionCount) IN :partitions")
+    List<Transaction> findByStatusInPartitions(@Param("status") TransactionStatus status,
+                                               @Param("partitionCount") long partitionCount,
+                                               @Param("partitions") Collection<Long> partitions);
+    
+    // Persisted auto-completion deadlines in the given partitions, in one query (startup recovery / takeover)
+    @Query("SELECT new com.groupfinance.transaction_service.dto.PendingDeadline(t.id, t.completionDueAt) "
+        + "FROM Transaction t WHERE t.status = :status AND t.completionDueAt IS NOT NULL "
+        + "AND MOD(t.id, :partitionCount) IN :partitions")
+    List<PendingDeadline> findDeadlinesInPartitions(@Param("status") TransactionStatus status,
+                                                    @Param("partitionCount") long partitionCount,
+                                                    @Param("partitions") Collection<Long> partitions);
+    
+    long countByStatusAndCompletionDueAtIsNotNull(TransactionStatus status);
+    
+    // Settle a transaction only if nobody has yet (timer on the creating node, owner's re-armed timer,
+    // cancellation); 1 row updated means this caller completed it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.status = :completed, t.mpesaReceiptNumber = :receipt, "
+        + "t.mpesaCallbackResult = :result, t.completedAt = :now, t.updatedAt = :now "
+        + "WHERE t.id = :id AND t.status = :pending")
+    int completeIfPending(@Param("id") Long id, @Param("receipt") String receipt, @Param("result") String result,
+                          @Param("now") java.time.LocalDateTime now,
+                          @Param("pending") TransactionStatus pending, @Param("completed") TransactionStatus completed);
+    
+    // Record a failed outcome the same way, when the regular save after an accepted STK push failed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.status = :failed, t.mpesaCallbackResult = :result, t.completedAt = :now, "
+        + "t.updatedAt = :now WHERE t.id = :id AND t.status = :pending")
+    int failIfPending(@Param("id") Long id, @Param("result") String result, @Param("now") java.time.LocalDateTime now,
+                      @Param("pending") TransactionStatus pending, @Param("failed") TransactionStatus failed);
+    
+    // Batch completion locks the rows it settles, so a concurrent completeIfPending waits and then matches nothing
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids AND t.status = :status")
+    List<Transaction> lockByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") TransactionStatus status);
+    
+    // Rows changed since a (updatedAt, id) position, oldest first - the search index's catch-up feed
+    @Query("SELECT new com.groupfinance.transaction_service.dto.SearchDocument(t.id, t.createdByUserId, t.groupId, "
+        + "t.description, t.category, t.mpesaReceiptNumber, t.updatedAt) FROM Transaction t "
+        + "WHERE t.updatedAt >= :since AND (t.updatedAt > :since OR t.id > :afterId) ORDER BY t.updatedAt, t.id")
+    List<SearchDocument> findSearchDocumentsChangedSince(@Param("since") java.time.LocalDateTime since,
+                                                         @Param("afterId") long afterId, Pageable pageable);
+    
+    // Read-only projections for listings (skip entity hydration and dirty checking)
+    String SUMMARY_SELECT = "SELECT new com.groupfinance.transaction_service.dto.TransactionSummary("
+        + "t.id, t.amount, t.description, t.category, t.type, t.status, t.mpesaPhoneNumber, "
+        + "t.mpesaReceiptNumber, t.createdAt, t.completedAt, t.createdByUserId, t.groupId, t.originalTransactionId) "
+        + "FROM Transaction t ";
+    
+    @Query(SUMMARY_SELECT + "WHERE t.id IN :ids")
+    List<TransactionSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.createdByUserId = :userId")
+    List<TransactionSummary> findSummariesByCreatedByUserId(@Param("userId") String userId);
+    
+    // Group dashboards - served by idx_transactions_group_created / idx_transactions_group_status,
+    // so they read only the group's rows
+    @Query(SUMMARY_SELECT + "WHERE t.groupId = :groupId ORDER BY t.createdAt DESC")
+    List<TransactionSummary> findSummariesByGroupId(@Param("groupId") String groupId);
+    
+    @Query(SUMMARY_SELECT + "WHERE t.groupId = :groupId AND t.status = :status ORDER BY t.createdAt DESC")
+    List<TransactionSummary> findSummariesByGroupIdAndStatus(@Param("groupId") String groupId,
+                                                             @Param("status") TransactionStatus status);
+    
     // Custom query to check if a transaction exists and is owned by user
     @Query("SELECT t FROM Transaction t WHERE t.id = :transactionId AND t.createdByUserId = :userId")
     Optional<Transaction> findByIdAndUserId(@Param("transactionId") Long transactionId, @Param("userId") String userId);
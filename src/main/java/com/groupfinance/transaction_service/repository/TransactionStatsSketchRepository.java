@@ -0,0 +1,33 @@
+package com.groupfinance.transaction_service.repository;
+
+import com.groupfinance.transaction_service.dto.StatsBucketKey;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatsSketch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionStatsSketchRepository extends JpaRepository<TransactionStatsSketch, Long> {
+    
+    // Every sketch row of a group in a day range (idx_stats_group_day)
+    List<TransactionStatsSketch> findByGroupIdAndDayBetween(String groupId, LocalDate from, LocalDate to);
+    
+    List<TransactionStatsSketch> findByGroupIdAndDayAndCategory(String groupId, LocalDate day, TransactionCategory category);
+    
+    // Buckets still split over several rows - the compaction backlog
+    @Query("SELECT new com.groupfinance.transaction_service.dto.StatsBucketKey(s.groupId, s.day, s.category) "
+        + "FROM TransactionStatsSketch s GROUP BY s.groupId, s.day, s.category HAVING COUNT(s) > 1")
+    List<StatsBucketKey> findFragmentedBuckets(Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM TransactionStatsSketch s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,96 @@
+package com.groupfinance.transaction_service.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps concurrent calls to a dependency. The cap adapts to observed latency (AIMD):
+ * +1/limit per fast success, x0.9 on a failure or a call slower than the target.
+ * Callers over the cap queue for up to maxWaitMillis, then are rejected.
+ */
+public class AdaptiveBulkhead {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyMillis;
+    private final long maxWaitMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight = 0;
+    private long rejected = 0;
+
+    public AdaptiveBulkhead(int minLimit, int maxLimit, long targetLatencyMillis, long maxWaitMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.limit = maxLimit;
+    }
+
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejected++;
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected++;
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(boolean success, long elapsedMillis) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (success && elapsedMillis <= targetLatencyMillis) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            } else {
+                limit = Math.max(minLimit, limit * 0.9);
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Action;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Rule;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Subject;
+import com.groupfinance.transaction_service.exception.TransactionHeldException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming checks on new transactions against per-user and per-phone sliding windows
+ * of count and amount (last minute, hour and day).
+ *
+ * Each key's windows are primitive ring buffers of time buckets - 12 x 5s, 12 x 5min and 24 x 1h -
+ * so a window slides one bucket at a time and a key costs a fixed ~1KB however busy it is.
+ * A check reads at most 24 buckets under the key's own monitor; no allocation once the key exists.
+ * Keys idle for app.anomaly.idle-eviction are dropped.
+ */
+@Component
+public class AnomalyDetector {
+
+    // Bucket counts and widths per AnomalyDetectionProperties.Window, in declaration order
+    private static final int[] BUCKETS = {12, 12, 24};
+    private static final long[] BUCKET_MILLIS = {5_000, 300_000, 3_600_000};
+    private static final int[] OFFSETS = {0, 12, 24};
+    private static final int TOTAL_BUCKETS = 48;
+
+    private final boolean enabled;
+    private final long idleEvictionMillis;
+    private final List<CompiledRule> rules = new ArrayList<>();
+    private final ConcurrentHashMap<String, KeyWindows> userWindows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, KeyWindows> phoneWindows = new ConcurrentHashMap<>();
+
+    private final LongAdder screened = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+    private final LongAdder held = new LongAdder();
+    private final LongAdder screenNanos = new LongAdder();
+    private final LongAccumulator maxScreenNanos = new LongAccumulator(Long::max, 0);
+
+    public AnomalyDetector(AnomalyDetectionProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.idleEvictionMillis = properties.getIdleEviction().toMillis();
+        properties.getRules().forEach((name, rule) -> rules.add(new CompiledRule(name, rule)));
+    }
+
+    /**
+     * Check a transaction about to be initiated against the windows, without counting it.
+     * Flagged transactions go through; held ones are refused.
+     */
+    public void check(String userId, String phoneNumber, double amount) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        long cents = Math.round(amount * 100);
+        KeyWindows user = windowsFor(userWindows, userId, now);
+        KeyWindows phone = windowsFor(phoneWindows, phoneNumber, now);
+        CompiledRule holdRule = null;
+        CompiledRule flagRule = null;
+        for (CompiledRule rule : rules) {
+            KeyWindows windows = rule.subject == Subject.USER ? user : phone;
+            if (windows == null || !windows.exceeds(rule, now, cents)) {
+                continue;
+            }
+            rule.hits.increment();
+            if (rule.action == Action.HOLD) {
+                holdRule = rule;
+                break;
+            }
+            if (flagRule == null) {
+                flagRule = rule;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        screened.increment();
+        screenNanos.add(elapsed);
+        maxScreenNanos.accumulate(elapsed);
+
+        if (holdRule != null) {
+            held.increment();
+            System.out.println("Anomaly rule " + holdRule.name + " held a transaction of " + amount
+                + " for user " + userId + " (phone " + phoneNumber + ")");
+            throw new TransactionHeldException("Transaction held for review: unusual activity on this account");
+        }
+        if (flagRule != null) {
+            flagged.increment();
+            System.out.println("Anomaly rule " + flagRule.name + " flagged a transaction of " + amount
+                + " for user " + userId + " (phone " + phoneNumber + ")");
+        }
+    }
+
+    /**
+     * Count a transaction in the windows - once it has actually been created, so attempts refused
+     * later (M-Pesa unavailable, failed save) don't push a retrying user towards a hold
+     */
+    public void record(String userId, String phoneNumber, double amount) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long cents = Math.round(amount * 100);
+        // Two keys, two monitors, and a gap since check(): concurrent requests may both pass a limit by one -
+        // fine for screening
+        KeyWindows user = windowsFor(userWindows, userId, now);
+        if (user != null) {
+            user.record(now, cents);
+        }
+        KeyWindows phone = windowsFor(phoneWindows, phoneNumber, now);
+        if (phone != null) {
+            phone.record(now, cents);
+        }
+    }
+
+    /**
+     * Drop windows that have seen nothing for app.anomaly.idle-eviction
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleWindows() {
+        long threshold = System.currentTimeMillis() - idleEvictionMillis;
+        userWindows.values().removeIf(windows -> windows.lastSeenMillis < threshold);
+        phoneWindows.values().removeIf(windows -> windows.lastSeenMillis < threshold);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long count = screened.sum();
+        status.put("enabled", enabled);
+        status.put("screened", count);
+        status.put("flagged", flagged.sum());
+        status.put("held", held.sum());
+        status.put("avgScreenMicros", count == 0 ? 0.0 : screenNanos.sum() / 1000.0 / count);
+        status.put("maxScreenMicros", maxScreenNanos.get() / 1000.0);
+        status.put("trackedUsers", userWindows.size());
+        status.put("trackedPhones", phoneWindows.size());
+        Map<String, Long> hits = new LinkedHashMap<>();
+        rules.forEach(rule -> hits.put(rule.name, rule.hits.sum()));
+        status.put("ruleHits", hits);
+        return status;
+    }
+
+    private static KeyWindows windowsFor(ConcurrentHashMap<String, KeyWindows> windows, String key, long now) {
+        if (key == null) {
+            return null;
+        }
+        KeyWindows existing = windows.get(key);
+        return existing != null ? existing : windows.computeIfAbsent(key, k -> new KeyWindows(now));
+    }
+
+    private static final class CompiledRule {
+        private final String name;
+        private final Subject subject;
+        private final int window;
+        private final int maxCount;
+        private final long maxAmountCents;
+        private final double maxMultipleOfAverage;
+        private final int minHistory;
+        private final Action action;
+        private final LongAdder hits = new LongAdder();
+
+        CompiledRule(String name, Rule rule) {
+            this.name = name;
+            this.subject = rule.getSubject();
+            this.window = rule.getWindow().ordinal();
+            this.maxCount = rule.getMaxCount();
+            this.maxAmountCents = Math.round(rule.getMaxAmount() * 100);
+            this.maxMultipleOfAverage = rule.getMaxMultipleOfAverage();
+            this.minHistory = Math.max(1, rule.getMinHistory());
+            this.action = rule.getAction();
+        }
+    }
+
+    /**
+     * Ring buffers for one user or phone. Slot i of a window holds the bucket whose index
+     * (time / width) was stamped in epochs[i]; a stale stamp means the slot is empty.
+     */
+    private static final class KeyWindows {
+        private final long[] epochs = new long[TOTAL_BUCKETS];
+        private final int[] counts = new int[TOTAL_BUCKETS];
+        private final long[] amountCents = new long[TOTAL_BUCKETS];
+        private volatile long lastSeenMillis;
+
+        KeyWindows(long now) {
+            this.lastSeenMillis = now;
+        }
+
+        synchronized boolean exceeds(CompiledRule rule, long now, long cents) {
+            long current = now / BUCKET_MILLIS[rule.window];
+            long oldest = current - BUCKETS[rule.window] + 1;
+            long count = 0;
+            long total = 0;
+            for (int i = OFFSETS[rule.window]; i < OFFSETS[rule.window] + BUCKETS[rule.window]; i++) {
+                if (epochs[i] >= oldest) {
+                    count += counts[i];
+                    total += amountCents[i];
+                }
+            }
+            if (rule.maxCount > 0 && count + 1 > rule.maxCount) {
+                return true;
+            }
+            if (rule.maxAmountCents > 0 && total + cents > rule.maxAmountCents) {
+                return true;
+            }
+            return rule.maxMultipleOfAverage > 0 && count >= rule.minHistory
+                && cents > rule.maxMultipleOfAverage * total / count;
+        }
+
+        synchronized void record(long now, long cents) {
+            for (int w = 0; w < BUCKETS.length; w++) {
+                long bucket = now / BUCKET_MILLIS[w];
+                int slot = OFFSETS[w] + (int) (bucket % BUCKETS[w]);
+                if (epochs[slot] != bucket) {
+                    epochs[slot] = bucket;
+                    counts[slot] = 0;
+                    amountCents[slot] = 0;
+                }
+                counts[slot]++;
+                amountCents[slot] += cents;
+            }
+            lastSeenMillis = now;
+        }
+    }
+}
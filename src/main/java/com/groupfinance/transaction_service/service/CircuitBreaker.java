@@ -0,0 +1,135 @@
+package com.groupfinance.transaction_service.service;
+
+/**
+ * Count-based circuit breaker over the last N calls.
+ * CLOSED -> OPEN when the failure or slow-call rate crosses its threshold;
+ * OPEN -> HALF_OPEN after openDurationMillis; HALF_OPEN lets a few trial calls
+ * through and closes again only if they all succeed quickly.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallMillis;
+    private final long openDurationMillis;
+    private final int halfOpenCalls;
+
+    // Ring buffer of outcomes: 0 = ok, 1 = failed, 2 = slow
+    private final byte[] outcomes;
+    private int position = 0;
+    private int recorded = 0;
+    private int failures = 0;
+    private int slowCalls = 0;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, double slowCallRateThreshold,
+                          long slowCallMillis, long openDurationMillis, int halfOpenCalls) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.openDurationMillis = openDurationMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.outcomes = new byte[windowSize];
+    }
+
+    /**
+     * @return true if a call may proceed; every permitted call must be followed by record() or releasePermission()
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Give back a permission whose call never reached the dependency (e.g. rejected by the bulkhead),
+     * without recording an outcome for it
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void record(boolean success, long elapsedMillis) {
+        boolean slow = elapsedMillis >= slowCallMillis;
+        if (state == State.HALF_OPEN) {
+            if (!success || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        byte outcome = !success ? (byte) 1 : slow ? (byte) 2 : (byte) 0;
+        if (recorded == windowSize) {
+            byte evicted = outcomes[position];
+            if (evicted == 1) failures--;
+            if (evicted == 2) slowCalls--;
+        } else {
+            recorded++;
+        }
+        outcomes[position] = outcome;
+        position = (position + 1) % windowSize;
+        if (outcome == 1) failures++;
+        if (outcome == 2) slowCalls++;
+
+        if (recorded >= minimumCalls
+                && (failures * 100.0 / recorded >= failureRateThreshold
+                    || slowCalls * 100.0 / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Milliseconds until an OPEN breaker will allow a trial call
+     */
+    public synchronized long getRemainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, openDurationMillis - (System.currentTimeMillis() - openedAt)) : 0;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        System.err.println("M-Pesa circuit breaker OPEN (failures=" + failures + ", slow=" + slowCalls + " of " + recorded + ")");
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        position = 0;
+        failures = 0;
+        slowCalls = 0;
+        System.out.println("M-Pesa circuit breaker CLOSED");
+    }
+}
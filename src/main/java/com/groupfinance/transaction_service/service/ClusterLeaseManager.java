@@ -0,0 +1,260 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.ClusterNode;
+import com.groupfinance.transaction_service.model.PartitionLease;
+import com.groupfinance.transaction_service.repository.ClusterNodeRepository;
+import com.groupfinance.transaction_service.repository.PartitionLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Splits the transaction ID space into partitions and leases them out to live instances through the
+ * database, so deadline recovery and stuck-transaction cleanup run on exactly one node per transaction.
+ * (The creating node still fires its own auto-completion timer; completion is a conditional update.)
+ * Leases are renewed on a fixed delay; a node that stops renewing loses its partitions to the survivors.
+ *
+ * The heartbeat row also carries the node's Snowflake worker ID. Rows outlive their heartbeat by
+ * WORKER_ID_GRACE_MILLIS, so an ID is only handed out again long after its previous holder went quiet.
+ */
+@Service
+public class ClusterLeaseManager {
+
+    private static final long WORKER_ID_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final PartitionLeaseRepository leaseRepository;
+    private final ClusterNodeRepository nodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final int partitionCount;
+    private final long leaseTtlMillis;
+    // Stop acting on a partition this long before the lease actually lapses, to absorb clock skew
+    private final long safetyMarginMillis;
+    private final boolean enabled;
+
+    // partition -> local deadline after which we no longer act on it
+    private final Map<Integer, Long> ownedUntil = new ConcurrentHashMap<>();
+    // Claimed through claimWorkerId, re-sent with every heartbeat
+    private Integer workerId;
+
+    public ClusterLeaseManager(PartitionLeaseRepository leaseRepository,
+                               ClusterNodeRepository nodeRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${app.cluster.node-id:}") String nodeId,
+                               @Value("${app.cluster.partitions:16}") int partitionCount,
+                               @Value("${app.cluster.lease-ttl-ms:15000}") long leaseTtlMillis,
+                               @Value("${app.cluster.enabled:true}") boolean enabled) {
+        this.leaseRepository = leaseRepository;
+        this.nodeRepository = nodeRepository;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? "node-" + UUID.randomUUID().toString().substring(0, 8) : nodeId;
+        this.partitionCount = partitionCount;
+        this.leaseTtlMillis = leaseTtlMillis;
+        this.safetyMarginMillis = leaseTtlMillis / 5;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Make sure a lease row exists for every partition; concurrent starters may race on the insert
+     */
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (!leaseRepository.existsById(partition)) {
+                try {
+                    leaseRepository.save(new PartitionLease(partition));
+                } catch (DataAccessException e) {
+                    // Another node inserted it first
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.renew-interval-ms:5000}")
+    public void renewLeases() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebalance();
+        } catch (Exception e) {
+            // Local deadlines keep counting down, so we stop acting before anyone can take over
+            System.err.println("Error renewing partition leases for " + nodeId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Heartbeat, renew what we hold, give back anything above our fair share and
+     * pick up free or expired partitions up to it.
+     *
+     * @return the partitions newly acquired by this pass
+     */
+    public synchronized Set<Integer> rebalance() {
+        long now = System.currentTimeMillis();
+        long until = now + leaseTtlMillis;
+        
+        nodeRepository.save(new ClusterNode(nodeId, until, workerId));
+        nodeRepository.deleteExpired(now - WORKER_ID_GRACE_MILLIS);
+        long liveNodes = Math.max(1, nodeRepository.countByHeartbeatUntilGreaterThanEqual(now));
+        int fairShare = (int) ((partitionCount + liveNodes - 1) / liveNodes);
+        
+        leaseRepository.renewAll(nodeId, until);
+        TreeSet<Integer> held = new TreeSet<>();
+        List<Integer> free = new ArrayList<>();
+        for (PartitionLease lease : leaseRepository.findAll()) {
+            if (nodeId.equals(lease.getOwnerId())) {
+                held.add(lease.getPartitionId());
+            } else if (lease.getOwnerId() == null || lease.getLeaseUntil() < now) {
+                free.add(lease.getPartitionId());
+            }
+        }
+        
+        // Hand back the surplus so a node that just joined can pick it up on its next pass
+        while (held.size() > fairShare) {
+            Integer partition = held.pollLast();
+            ownedUntil.remove(partition);
+            leaseRepository.release(partition, nodeId);
+        }
+        
+        Set<Integer> acquired = new TreeSet<>();
+        for (Integer partition : free) {
+            if (held.size() >= fairShare) {
+                break;
+            }
+            if (leaseRepository.tryAcquire(partition, nodeId, until, now) == 1) {
+                held.add(partition);
+                acquired.add(partition);
+            }
+        }
+        
+        ownedUntil.keySet().retainAll(held);
+        for (Integer partition : held) {
+            ownedUntil.put(partition, until - safetyMarginMillis);
+        }
+        
+        if (!acquired.isEmpty()) {
+            System.out.println(nodeId + " acquired partitions " + acquired + " (" + liveNodes + " live node(s), holding " + held.size() + ")");
+            eventPublisher.publishEvent(new PartitionsAcquiredEvent(nodeId, acquired));
+        }
+        return acquired;
+    }
+
+    /**
+     * Give everything back on a clean shutdown so survivors take over on their next pass
+     * instead of waiting for the leases to expire
+     */
+    @PreDestroy
+    public synchronized void releaseAll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (Integer partition : ownedUntil.keySet()) {
+                leaseRepository.release(partition, nodeId);
+            }
+            ownedUntil.clear();
+            // Expire the heartbeat rather than delete it: the worker ID stays reserved for the grace period,
+            // since IDs issued while shutting down may still be in flight
+            nodeRepository.save(new ClusterNode(nodeId, System.currentTimeMillis() - 1, workerId));
+        } catch (Exception e) {
+            System.err.println("Error releasing partition leases for " + nodeId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Claim a Snowflake worker ID (0..maxWorkerId) that no other registered node holds, trying preferred first.
+     * Two nodes racing for the same ID are separated by the unique column: the loser moves on to the next one.
+     */
+    public synchronized int claimWorkerId(int preferred, int maxWorkerId) {
+        if (!enabled) {
+            // Single instance: nobody to collide with
+            return preferred;
+        }
+        if (workerId != null) {
+            return workerId;
+        }
+        // A node restarted under the same configured node ID keeps its old claim
+        Integer previous = nodeRepository.findById(nodeId).map(ClusterNode::getWorkerId).orElse(null);
+        if (previous != null) {
+            workerId = previous;
+            return previous;
+        }
+        for (int attempt = 0; attempt <= maxWorkerId; attempt++) {
+            Set<Integer> claimed = new HashSet<>(nodeRepository.findClaimedWorkerIds());
+            int candidate = -1;
+            for (int offset = 0; offset <= maxWorkerId; offset++) {
+                int id = (preferred + offset) % (maxWorkerId + 1);
+                if (!claimed.contains(id)) {
+                    candidate = id;
+                    break;
+                }
+            }
+            if (candidate < 0) {
+                break;
+            }
+            try {
+                nodeRepository.save(new ClusterNode(nodeId, System.currentTimeMillis() + leaseTtlMillis, candidate));
+                workerId = candidate;
+                System.out.println(nodeId + " claimed worker ID " + candidate);
+                return candidate;
+            } catch (DataIntegrityViolationException e) {
+                // Another node claimed it first
+            }
+        }
+        throw new IllegalStateException("No free worker ID: all " + (maxWorkerId + 1) + " are claimed by registered nodes");
+    }
+
+    public int partitionOf(Long transactionId) {
+        return (int) Math.floorMod(transactionId, (long) partitionCount);
+    }
+
+    /**
+     * Whether this node should run timers and cleanup for the given transaction right now
+     */
+    public boolean owns(Long transactionId) {
+        if (!enabled) {
+            return true;
+        }
+        Long deadline = ownedUntil.get(partitionOf(transactionId));
+        return deadline != null && System.currentTimeMillis() < deadline;
+    }
+
+    public Set<Integer> getOwnedPartitions() {
+        if (!enabled) {
+            return IntStream.range(0, partitionCount).boxed().collect(Collectors.toCollection(TreeSet::new));
+        }
+        long now = System.currentTimeMillis();
+        return ownedUntil.entrySet().stream()
+            .filter(entry -> now < entry.getValue())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
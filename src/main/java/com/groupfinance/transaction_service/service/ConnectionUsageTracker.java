@@ -0,0 +1,120 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.dto.ConnectionUsageStats;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics hook that attributes pool wait time and connection hold time
+ * to the service method that was running when the connection was used
+ */
+@Component
+public class ConnectionUsageTracker implements MetricsTrackerFactory {
+
+    private static final String UNATTRIBUTED = "unattributed";
+
+    // Outermost service method on the current thread (set by ConnectionAttributionAspect)
+    private static final ThreadLocal<String> CURRENT_METHOD = new ThreadLocal<>();
+
+    private final Map<String, MethodStats> statsByMethod = new ConcurrentHashMap<>();
+    private final Map<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+    public static boolean enterMethod(String method) {
+        if (CURRENT_METHOD.get() != null) {
+            return false;
+        }
+        CURRENT_METHOD.set(method);
+        return true;
+    }
+
+    public static void exitMethod() {
+        CURRENT_METHOD.remove();
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        pools.put(poolName, poolStats);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                currentStats().recordWait(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                currentStats().recordHold(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                currentStats().timeouts.increment();
+            }
+        };
+    }
+
+    public List<ConnectionUsageStats> getStats() {
+        List<ConnectionUsageStats> result = new ArrayList<>();
+        statsByMethod.forEach((method, stats) -> result.add(stats.snapshot(method)));
+        result.sort((a, b) -> Long.compare(b.getTotalHoldMillis(), a.getTotalHoldMillis()));
+        return result;
+    }
+
+    public Map<String, PoolStats> getPools() {
+        return pools;
+    }
+
+    public void reset() {
+        statsByMethod.clear();
+    }
+
+    private MethodStats currentStats() {
+        String method = CURRENT_METHOD.get();
+        return statsByMethod.computeIfAbsent(method != null ? method : UNATTRIBUTED, k -> new MethodStats());
+    }
+
+    private static final class MethodStats {
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder releases = new LongAdder();
+        private final LongAdder totalHoldMillis = new LongAdder();
+        private final LongAccumulator maxHoldMillis = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+
+        void recordWait(long nanos) {
+            acquisitions.increment();
+            totalWaitNanos.add(nanos);
+            maxWaitNanos.accumulate(nanos);
+        }
+
+        void recordHold(long millis) {
+            releases.increment();
+            totalHoldMillis.add(millis);
+            maxHoldMillis.accumulate(millis);
+        }
+
+        ConnectionUsageStats snapshot(String method) {
+            ConnectionUsageStats stats = new ConnectionUsageStats();
+            stats.setMethod(method);
+            stats.setAcquisitions(acquisitions.sum());
+            stats.setTotalWaitMillis(TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()));
+            stats.setMaxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+            stats.setTotalHoldMillis(totalHoldMillis.sum());
+            stats.setMaxHoldMillis(maxHoldMillis.get());
+            long released = releases.sum();
+            stats.setAvgHoldMillis(released == 0 ? 0.0 : (double) totalHoldMillis.sum() / released);
+            stats.setTimeouts(timeouts.sum());
+            return stats;
+        }
+    }
+}
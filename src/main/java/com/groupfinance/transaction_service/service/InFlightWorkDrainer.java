@@ -0,0 +1,85 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains in-flight background work on shutdown, after the web server has finished its in-flight
+ * requests (graceful shutdown) and before it stops:
+ * 1. stop claiming STK retries and let running pushes finish
+ * 2. hand partition leases back so surviving nodes recover the pending deadlines straight away
+ *
+ * Auto-completion timers are simply dropped - their deadlines are persisted on the rows and
+ * re-armed from there by whichever node owns the partition next (including this one after a restart).
+ */
+@Component
+public class InFlightWorkDrainer implements SmartLifecycle {
+
+    // Between WebServerGracefulShutdownLifecycle (DEFAULT_PHASE - 1024) and WebServerStartStopLifecycle (DEFAULT_PHASE - 2048)
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1536;
+
+    private final StkRetryQueue stkRetryQueue;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final long drainTimeoutMillis;
+    private volatile boolean running;
+
+    public InFlightWorkDrainer(StkRetryQueue stkRetryQueue,
+                               ClusterLeaseManager clusterLeaseManager,
+                               TransactionRepository transactionRepository,
+                               ShardRouter shardRouter,
+                               @Value("${app.shutdown.drain-timeout-ms:15000}") long drainTimeoutMillis) {
+        this.stkRetryQueue = stkRetryQueue;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.transactionRepository = transactionRepository;
+        this.shardRouter = shardRouter;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        long started = System.currentTimeMillis();
+        try {
+            boolean drained = stkRetryQueue.drain(drainTimeoutMillis);
+            if (!drained) {
+                System.err.println("STK retry workers did not finish within " + drainTimeoutMillis + " ms - remaining claims will be re-queued");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clusterLeaseManager.releaseAll();
+            running = false;
+        }
+        
+        try {
+            long pending = 0;
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                pending += shardRouter.onShard(shard,
+                    () -> transactionRepository.countByStatusAndCompletionDueAtIsNotNull(TransactionStatus.PENDING));
+            }
+            System.out.println("Drained in-flight work in " + (System.currentTimeMillis() - started) + " ms; " +
+                pending + " pending deadline(s) persisted for recovery");
+        } catch (Exception e) {
+            System.err.println("Could not count pending deadlines on shutdown: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
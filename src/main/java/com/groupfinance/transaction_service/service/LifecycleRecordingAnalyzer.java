@@ -0,0 +1,143 @@
+package com.groupfinance.transaction_service.service;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * OFFLINE TOOL: per-phase latency breakdown of the transaction lifecycle events in a .jfr file
+ * (recorded under the jfr profile, or with jfr/transactions.jfc on the command line).
+ *
+ *   java -cp target/classes com.groupfinance.transaction_service.service.LifecycleRecordingAnalyzer data/transactions.jfr [top]
+ *
+ * Prints count and duration percentiles per phase with the share spent in the database, the outcomes
+ * seen per phase, how late auto-completions ran, and the [top] (default 10) slowest initiations
+ * split into their phases.
+ */
+public class LifecycleRecordingAnalyzer {
+
+    // Lifecycle order; the STK push is split by outcome since failures time out rather than answer
+    private static final List<String> PHASES = List.of("Validate", "FirstSave", "StkPush", "StkPush (failed)",
+        "SecondSave", "AutoComplete", "Cancel", "CleanupSweep");
+    private static final List<String> INITIATION_PHASES = List.of("Validate", "FirstSave", "StkPush", "SecondSave");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: LifecycleRecordingAnalyzer <recording.jfr> [top]");
+            System.exit(1);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Map<String, Samples> phases = new LinkedHashMap<>();
+        PHASES.forEach(phase -> phases.put(phase, new Samples()));
+        Map<String, Map<String, Integer>> outcomes = new HashMap<>();
+        Samples lateness = new Samples();
+        Map<Long, long[]> initiations = new HashMap<>();
+
+        int events = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(Path.of(args[0]))) {
+            String name = event.getEventType().getName();
+            if (!name.startsWith(TransactionLifecycleEvents.PREFIX)) {
+                continue;
+            }
+            events++;
+            String phase = name.substring(TransactionLifecycleEvents.PREFIX.length());
+            if (phase.equals("StkPush") && !event.getBoolean("succeeded")) {
+                phase = "StkPush (failed)";
+            }
+            long duration = event.getDuration().toNanos();
+            phases.computeIfAbsent(phase, p -> new Samples()).add(duration, event.getLong("dbTime"));
+
+            if (event.hasField("status") && event.getString("status") != null) {
+                outcomes.computeIfAbsent(phase, p -> new TreeMap<>()).merge(event.getString("status"), 1, Integer::sum);
+            }
+            if (phase.equals("AutoComplete")) {
+                lateness.add(event.getLong("lateness"), 0);
+            }
+            if (event.hasField("transactionId") && event.getLong("transactionId") != 0) {
+                int index = INITIATION_PHASES.indexOf(phase.equals("StkPush (failed)") ? "StkPush" : phase);
+                if (index >= 0) {
+                    initiations.computeIfAbsent(event.getLong("transactionId"), id -> new long[INITIATION_PHASES.size()])[index] += duration;
+                }
+            }
+        }
+        if (events == 0) {
+            System.out.println("No transaction lifecycle events in " + args[0] + " - was it recorded with jfr/transactions.jfc?");
+            return;
+        }
+
+        System.out.printf("%d lifecycle events in %s%n%n", events, args[0]);
+        System.out.printf("%-17s %8s %9s %9s %9s %9s %9s %9s %6s%n",
+            "phase", "count", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms", "db ms", "db %");
+        phases.forEach((phase, samples) -> {
+            if (samples.size() > 0) {
+                samples.print(phase);
+            }
+        });
+
+        System.out.println();
+        phases.keySet().stream().filter(outcomes::containsKey)
+            .forEach(phase -> System.out.printf("%-17s %s%n", phase, outcomes.get(phase)));
+
+        if (lateness.size() > 0) {
+            System.out.printf("%nAuto-completion lateness past the deadline: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                lateness.percentile(0.50), lateness.percentile(0.99), lateness.percentile(1.0));
+        }
+
+        if (!initiations.isEmpty()) {
+            System.out.printf("%nSlowest initiations (ms):%n%-20s %9s", "transaction", "total");
+            INITIATION_PHASES.forEach(phase -> System.out.printf(" %11s", phase));
+            System.out.println();
+            initiations.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, long[]> entry) -> Arrays.stream(entry.getValue()).sum()).reversed())
+                .limit(top)
+                .forEach(entry -> {
+                    System.out.printf("%-20d %9.1f", entry.getKey(), Arrays.stream(entry.getValue()).sum() / 1e6);
+                    for (long phaseNanos : entry.getValue()) {
+                        System.out.printf(" %11.1f", phaseNanos / 1e6);
+                    }
+                    System.out.println();
+                });
+        }
+    }
+
+    private static final class Samples {
+        private final List<Long> durations = new ArrayList<>();
+        private long dbTotal;
+        private long[] sorted;
+
+        void add(long durationNanos, long dbNanos) {
+            durations.add(durationNanos);
+            dbTotal += dbNanos;
+            sorted = null;
+        }
+
+        int size() {
+            return durations.size();
+        }
+
+        double percentile(double p) {
+            if (sorted == null) {
+                sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(p * sorted.length) - 1));
+            return sorted[index] / 1e6;
+        }
+
+        void print(String phase) {
+            long total = durations.stream().mapToLong(Long::longValue).sum();
+            System.out.printf("%-17s %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %5.0f%%%n", phase, size(),
+                total / 1e6 / size(), percentile(0.50), percentile(0.90), percentile(0.99), percentile(1.0),
+                dbTotal / 1e6 / size(), total > 0 ? 100.0 * dbTotal / total : 0.0);
+        }
+    }
+}
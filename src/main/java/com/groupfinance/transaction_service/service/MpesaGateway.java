@@ -0,0 +1,86 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.exception.MpesaUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guards STK push calls with an adaptive bulkhead and a circuit breaker, so a slow or
+ * failing M-Pesa fails fast instead of tying up request threads
+ */
+@Service
+public class MpesaGateway {
+
+    private final MpesaMockService mpesaMockService;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveBulkhead bulkhead;
+
+    public MpesaGateway(MpesaMockService mpesaMockService,
+                        @Value("${app.mpesa.bulkhead.min-concurrent:5}") int minConcurrent,
+                        @Value("${app.mpesa.bulkhead.max-concurrent:50}") int maxConcurrent,
+                        @Value("${app.mpesa.bulkhead.target-latency-ms:2000}") long targetLatencyMillis,
+                        @Value("${app.mpesa.bulkhead.max-wait-ms:500}") long maxWaitMillis,
+                        @Value("${app.mpesa.circuit.window-size:20}") int windowSize,
+                        @Value("${app.mpesa.circuit.minimum-calls:10}") int minimumCalls,
+                        @Value("${app.mpesa.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+                        @Value("${app.mpesa.circuit.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+                        @Value("${app.mpesa.circuit.slow-call-ms:5000}") long slowCallMillis,
+                        @Value("${app.mpesa.circuit.open-duration-ms:10000}") long openDurationMillis,
+                        @Value("${app.mpesa.circuit.half-open-calls:3}") int halfOpenCalls) {
+        this.mpesaMockService = mpesaMockService;
+        this.bulkhead = new AdaptiveBulkhead(minConcurrent, maxConcurrent, targetLatencyMillis, maxWaitMillis);
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, slowCallRateThreshold,
+            slowCallMillis, openDurationMillis, halfOpenCalls);
+    }
+
+    /**
+     * Cheap pre-check so callers can reject before doing any DB work
+     */
+    public void ensureAvailable() {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN && circuitBreaker.getRemainingOpenMillis() > 0) {
+            throw unavailable("M-Pesa is currently unavailable. Please retry shortly.");
+        }
+    }
+
+    public String initiateStkPush(String phoneNumber, Double amount, String description) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw unavailable("M-Pesa is currently unavailable. Please retry shortly.");
+        }
+        if (!bulkhead.tryAcquire()) {
+            // Not M-Pesa's fault and M-Pesa was never called - return the permit without an outcome
+            circuitBreaker.releasePermission();
+            throw new MpesaUnavailableException("Too many M-Pesa requests in progress. Please retry shortly.", 1);
+        }
+        
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String requestId = mpesaMockService.initiateStkPush(phoneNumber, amount, description);
+            success = true;
+            return requestId;
+        } finally {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            bulkhead.release(success, elapsedMillis);
+            circuitBreaker.record(success, elapsedMillis);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("circuitState", circuitBreaker.getState());
+        status.put("circuitRemainingOpenMillis", circuitBreaker.getRemainingOpenMillis());
+        status.put("concurrencyLimit", bulkhead.getLimit());
+        status.put("inFlight", bulkhead.getInFlight());
+        status.put("bulkheadRejected", bulkhead.getRejected());
+        return status;
+    }
+
+    private MpesaUnavailableException unavailable(String message) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(circuitBreaker.getRemainingOpenMillis()));
+        return new MpesaUnavailableException(message, retryAfterSeconds);
+    }
+}
@@ -1,13 +1,27 @@
 package com.groupfinance.transaction_service.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class MpesaMockService {
     
-    private final Random random = new Random();
+    private final SnowflakeIdGenerator idGenerator;
+    
+    // Fault injection for resilience testing (see MpesaFaultController, dev/test profiles only)
+    private final long baseLatencyMillis;
+    private volatile long injectedLatencyMillis = 0;
+    private volatile double injectedFailureRate = 0.0;
+    private final AtomicInteger injectedFailureBurst = new AtomicInteger();
+    
+    public MpesaMockService(SnowflakeIdGenerator idGenerator,
+                            @Value("${app.mpesa.mock.latency-ms:1000}") long baseLatencyMillis) {
+        this.idGenerator = idGenerator;
+        this.baseLatencyMillis = baseLatencyMillis;
+    }
     
     /**
      * Simulates sending STK Push to M-Pesa
@@ -16,13 +30,19 @@ public class MpesaMockService {
     public String initiateStkPush(String phoneNumber, Double amount, String description) {
         // Simulate API call delay
         try {
-            Thread.sleep(1000);
+            Thread.sleep(baseLatencyMillis + injectedLatencyMillis);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
         
+        // Injected failures: a burst of N consecutive errors, then a random error rate
+        if (injectedFailureBurst.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0
+                || ThreadLocalRandom.current().nextDouble() < injectedFailureRate) {
+            throw new IllegalStateException("SIMULATED_MPESA_ERROR: Daraja API unavailable");
+        }
+        
         // Generate a mock request ID (simulates M-Pesa response)
-        String requestId = "REQ_" + System.currentTimeMillis() + "_" + random.nextInt(1000);
+        String requestId = idGenerator.nextRequestId();
         
         // Log the mock request (in real app, this would be the actual API call)
         System.out.println("=== MOCK M-PESA STK PUSH ===");
@@ -46,10 +66,37 @@ public class MpesaMockService {
         return phoneNumber.equals("254700000000");
     }
     
+    /**
+     * Configure injected faults; pass null to leave a setting unchanged
+     */
+    public void injectFaults(Long latencyMillis, Double failureRate, Integer failureBurst) {
+        if (latencyMillis != null) {
+            this.injectedLatencyMillis = latencyMillis;
+        }
+        if (failureRate != null) {
+            this.injectedFailureRate = failureRate;
+        }
+        if (failureBurst != null) {
+            this.injectedFailureBurst.set(failureBurst);
+        }
+    }
+    
+    public long getInjectedLatencyMillis() {
+        return injectedLatencyMillis;
+    }
+    
+    public double getInjectedFailureRate() {
+        return injectedFailureRate;
+    }
+    
+    public int getInjectedFailureBurst() {
+        return injectedFailureBurst.get();
+    }
+    
     /**
      * Generates a mock M-Pesa receipt number
      */
     public String generateMockReceiptNumber() {
-        return "MPE" + System.currentTimeMillis() + "A" + random.nextInt(1000);
+        return idGenerator.nextReceiptNumber();
     }
 }
\ No newline at end of file
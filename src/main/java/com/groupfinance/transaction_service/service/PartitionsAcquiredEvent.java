@@ -0,0 +1,9 @@
+package com.groupfinance.transaction_service.service;
+
+import java.util.Set;
+
+/**
+ * Published when this node takes over partitions, so their pending timers can be re-armed here
+ */
+public record PartitionsAcquiredEvent(String nodeId, Set<Integer> partitions) {
+}
@@ -0,0 +1,101 @@
+package com.groupfinance.transaction_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupfinance.transaction_service.config.GzipCompressorPool;
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.exception.TransactionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Gzipped JSON for archive months that are sealed (see TransactionArchiver.isMonthSealed).
+ * A sealed month's archive page can never change again, so it is read, serialized and
+ * compressed once per group and then served as-is on every later download.
+ */
+@Component
+public class PrecompressedPageCache {
+
+    private final Map<String, CachedPage> cache = new ConcurrentHashMap<>();
+    private final TransactionService transactionService;
+    private final TransactionArchiver transactionArchiver;
+    private final ShardRouter shardRouter;
+    private final GzipCompressorPool compressorPool;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PrecompressedPageCache(TransactionService transactionService, TransactionArchiver transactionArchiver,
+                                  ShardRouter shardRouter, GzipCompressorPool compressorPool, ObjectMapper objectMapper,
+                                  @Value("${app.compression.precompressed-pages.max-entries:1000}") int maxEntries) {
+        this.transactionService = transactionService;
+        this.transactionArchiver = transactionArchiver;
+        this.shardRouter = shardRouter;
+        this.compressorPool = compressorPool;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The group's gzipped archive page for the month, or null if the month isn't sealed on the group's shard yet
+     */
+    public CachedPage getSealedArchivePage(String groupId, String month, String message) {
+        if (!transactionArchiver.isMonthSealed(month, shardRouter.shardForGroup(groupId))) {
+            return null;
+        }
+        String key = groupId + "/" + month;
+        CachedPage cached = cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        
+        List<TransactionResponse> transactions = transactionService.getArchivedTransactions(groupId, month);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(ApiResponse.success(message, transactions));
+        } catch (JsonProcessingException e) {
+            throw new TransactionException("Failed to serialize archive page " + month, e);
+        }
+        byte[] gzipped = compressorPool.gzip(json);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        // Names the gzip representation only
+        String etag = "\"" + month + "-" + Long.toHexString(crc.getValue()) + "-gzip\"";
+        
+        cached = new CachedPage(gzipped, etag, json.length);
+        if (cache.size() >= maxEntries) {
+            // Bounded: drop an arbitrary entry, it will simply be rebuilt on its next read
+            Iterator<String> it = cache.keySet().iterator();
+            if (it.hasNext()) {
+                cache.remove(it.next());
+            }
+        }
+        cache.put(key, cached);
+        return cached;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public record CachedPage(byte[] gzippedBody, String etag, int uncompressedLength) {}
+}
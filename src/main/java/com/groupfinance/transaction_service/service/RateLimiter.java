@@ -0,0 +1,165 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.RateLimitProperties;
+import com.groupfinance.transaction_service.config.RateLimitProperties.EndpointLimits;
+import com.groupfinance.transaction_service.config.RateLimitProperties.Limit;
+import com.groupfinance.transaction_service.exception.RateLimitExceededException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory per-user and per-phone rate limiting.
+ * Each key's bucket is a single AtomicLong (GCRA "theoretical arrival time"),
+ * updated with one CAS - no locks, no allocation on the hot path once the key exists.
+ * Buckets live in ConcurrentHashMaps, whose bins are independently locked only on insert.
+ */
+@Component
+public class RateLimiter {
+
+    private static final String USER_LIMITED = "Too many requests for this user. Please retry later.";
+    private static final String PHONE_LIMITED = "Too many requests for this phone number. Please retry later.";
+
+    private final boolean enabled;
+    private final long idleEvictionNanos;
+    private final Map<String, EndpointBuckets> endpoints = new HashMap<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.idleEvictionNanos = properties.getIdleEviction().toNanos();
+        properties.getEndpoints().forEach((name, limits) -> endpoints.put(name, new EndpointBuckets(limits)));
+    }
+
+    /**
+     * Consume one request for the user and phone on this endpoint, or throw with a retry hint.
+     * A request rejected by either limit consumes neither.
+     */
+    public void acquire(String endpoint, String userId, String phoneNumber) {
+        if (!enabled) {
+            return;
+        }
+        EndpointBuckets buckets = endpoints.get(endpoint);
+        if (buckets == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        KeyedLimiter perUser = userId != null ? buckets.perUser : null;
+        KeyedLimiter perPhone = phoneNumber != null ? buckets.perPhone : null;
+        // Check both limits before consuming either, so a request rejected on one key costs nothing on the other
+        if (perUser != null) {
+            rejectIfLimited(perUser.peek(userId, now), USER_LIMITED);
+        }
+        if (perPhone != null) {
+            rejectIfLimited(perPhone.peek(phoneNumber, now), PHONE_LIMITED);
+        }
+        if (perUser != null) {
+            rejectIfLimited(perUser.tryAcquire(userId, now), USER_LIMITED);
+        }
+        if (perPhone != null) {
+            long waitNanos = perPhone.tryAcquire(phoneNumber, now);
+            if (waitNanos > 0) {
+                // Lost a race for the phone's last slot after the peek - hand the user's slot back
+                if (perUser != null) {
+                    perUser.release(userId);
+                }
+                rejectIfLimited(waitNanos, PHONE_LIMITED);
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have been idle long enough to be full again
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictIdleBuckets() {
+        long threshold = System.nanoTime() - idleEvictionNanos;
+        for (EndpointBuckets buckets : endpoints.values()) {
+            if (buckets.perUser != null) {
+                buckets.perUser.evictBefore(threshold);
+            }
+            if (buckets.perPhone != null) {
+                buckets.perPhone.evictBefore(threshold);
+            }
+        }
+    }
+
+    private static void rejectIfLimited(long waitNanos, String message) {
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException(message, toRetrySeconds(waitNanos));
+        }
+    }
+
+    private static long toRetrySeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static final class EndpointBuckets {
+        private final KeyedLimiter perUser;
+        private final KeyedLimiter perPhone;
+
+        EndpointBuckets(EndpointLimits limits) {
+            this.perUser = KeyedLimiter.of(limits.getPerUser());
+            this.perPhone = KeyedLimiter.of(limits.getPerPhone());
+        }
+    }
+
+    private static final class KeyedLimiter {
+        private final ConcurrentHashMap<String, AtomicLong> arrivalTimes = new ConcurrentHashMap<>();
+        // Time one request "costs"
+        private final long emissionIntervalNanos;
+        // How far ahead of now the arrival time may run (burst capacity)
+        private final long burstToleranceNanos;
+
+        private KeyedLimiter(Limit limit) {
+            this.emissionIntervalNanos = limit.getPeriod().toNanos() / limit.getRequests();
+            this.burstToleranceNanos = emissionIntervalNanos * limit.getRequests();
+        }
+
+        static KeyedLimiter of(Limit limit) {
+            return limit == null || limit.getRequests() <= 0 ? null : new KeyedLimiter(limit);
+        }
+
+        // Returns 0 if a request would be allowed right now, otherwise nanos until it would be; consumes nothing
+        long peek(String key, long now) {
+            AtomicLong arrival = arrivalTimes.get(key);
+            long current = arrival == null ? now : arrival.get();
+            return Math.max(0, Math.max(current, now) + emissionIntervalNanos - now - burstToleranceNanos);
+        }
+
+        // Returns 0 if allowed, otherwise nanos until the next request would be allowed
+        long tryAcquire(String key, long now) {
+            AtomicLong arrival = arrivalTimes.get(key);
+            if (arrival == null) {
+                arrival = arrivalTimes.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + emissionIntervalNanos;
+                long excess = next - now - burstToleranceNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        // Give back one request consumed by tryAcquire
+        void release(String key) {
+            AtomicLong arrival = arrivalTimes.get(key);
+            if (arrival != null) {
+                arrival.addAndGet(-emissionIntervalNanos);
+            }
+        }
+
+        void evictBefore(long threshold) {
+            arrivalTimes.entrySet().removeIf(entry -> entry.getValue().get() < threshold);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.groupfinance.transaction_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each user last wrote, so their reads can be pinned to the
+ * primary until the replica has had time to catch up
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public ReadYourWritesTracker(@Value("${app.datasource.replica.read-your-writes-window-ms:5000}") long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(String userId) {
+        if (userId != null) {
+            lastWriteByUser.put(userId, System.currentTimeMillis());
+        }
+    }
+
+    public boolean hasRecentWrite(String userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite > windowMillis) {
+            // Replica has caught up - drop the entry so the map stays small
+            lastWriteByUser.remove(userId, lastWrite);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,259 @@
+package com.groupfinance.transaction_service.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable, memory-mapped slice of the search index. Layout (big-endian):
+ *
+ *   int magic, int version, int termCount
+ *   termCount x (int termOffset, int termLength, int postingsOffset, int postingsCount)
+ *   term bytes - UTF-8, entries sorted by unsigned byte order
+ *   postings   - sorted transaction IDs as longs
+ *
+ * Lookups binary-search the fixed-width entry table straight from the mapping; nothing is loaded onto the heap.
+ */
+final class SearchIndexSegment {
+
+    private static final int MAGIC = 0x54584958; // "TXIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int ENTRY_BYTES = 16;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int termCount;
+
+    private SearchIndexSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.termCount = buffer.getInt(8);
+    }
+
+    static SearchIndexSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a search index segment: " + path);
+            }
+            return new SearchIndexSegment(path, buffer);
+        }
+    }
+
+    /**
+     * Write postings to a new segment file (fsynced, then moved into place) and map it
+     */
+    static SearchIndexSegment write(Path path, Map<String, ? extends Collection<Long>> postings) throws IOException {
+        byte[][] terms = new byte[postings.size()][];
+        long[][] ids = new long[postings.size()][];
+        Integer[] order = new Integer[postings.size()];
+        int i = 0;
+        for (Map.Entry<String, ? extends Collection<Long>> entry : postings.entrySet()) {
+            terms[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            ids[i] = entry.getValue().stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(terms[a], terms[b]));
+
+        int termBytes = 0;
+        for (byte[] term : terms) {
+            termBytes += term.length;
+        }
+        int termOffset = HEADER_BYTES + terms.length * ENTRY_BYTES;
+        int postingsOffset = termOffset + termBytes;
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(terms.length);
+            for (int index : order) {
+                out.writeInt(termOffset);
+                out.writeInt(terms[index].length);
+                out.writeInt(postingsOffset);
+                out.writeInt(ids[index].length);
+                termOffset += terms[index].length;
+                postingsOffset += ids[index].length * Long.BYTES;
+            }
+            for (int index : order) {
+                out.write(terms[index]);
+            }
+            for (int index : order) {
+                for (long id : ids[index]) {
+                    out.writeLong(id);
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(path);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Mark each unmarked candidate (sorted ascending) that appears in the postings of a term starting with
+     * prefix, binary-searching the postings in place; returns how many candidates are still unmarked
+     */
+    int markPrefixMatches(byte[] prefix, long[] candidates, boolean[] hit, int remaining) {
+        for (int entry = lowerBound(prefix); entry < termCount && startsWith(entry, prefix) && remaining > 0; entry++) {
+            int base = HEADER_BYTES + entry * ENTRY_BYTES;
+            int offset = buffer.getInt(base + 8);
+            int count = buffer.getInt(base + 12);
+            // Candidates ascend, so each search can start where the previous one ended
+            int from = 0;
+            for (int i = 0; i < candidates.length && from < count; i++) {
+                if (hit[i]) {
+                    continue;
+                }
+                from = lowerBound(offset, from, count, candidates[i]);
+                if (from < count && buffer.getLong(offset + from * Long.BYTES) == candidates[i]) {
+                    hit[i] = true;
+                    remaining--;
+                }
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Append the postings of one exact term
+     */
+    void collectTerm(byte[] term, LongList out) {
+        int entry = lowerBound(term);
+        if (entry < termCount && compareTerm(entry, term) == 0) {
+            collectPostings(entry, out);
+        }
+    }
+
+    /**
+     * Visit every term with its postings, in term order (for merging)
+     */
+    void forEachTerm(BiConsumer<String, long[]> visitor) {
+        for (int entry = 0; entry < termCount; entry++) {
+            int base = HEADER_BYTES + entry * ENTRY_BYTES;
+            byte[] term = new byte[buffer.getInt(base + 4)];
+            buffer.get(buffer.getInt(base), term);
+            LongList postings = new LongList();
+            collectPostings(entry, postings);
+            visitor.accept(new String(term, StandardCharsets.UTF_8), postings.toArray());
+        }
+    }
+
+    private void collectPostings(int entry, LongList out) {
+        int base = HEADER_BYTES + entry * ENTRY_BYTES;
+        int offset = buffer.getInt(base + 8);
+        int count = buffer.getInt(base + 12);
+        for (int i = 0; i < count; i++) {
+            out.add(buffer.getLong(offset + i * Long.BYTES));
+        }
+    }
+
+    // First entry whose term is >= key
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First posting index in [from, count) whose ID is >= id
+    private int lowerBound(int offset, int from, int count, long id) {
+        int low = from;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(offset + mid * Long.BYTES) < id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareTerm(int entry, byte[] key) {
+        int base = HEADER_BYTES + entry * ENTRY_BYTES;
+        int offset = buffer.getInt(base);
+        int length = buffer.getInt(base + 4);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(offset + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean startsWith(int entry, byte[] prefix) {
+        int base = HEADER_BYTES + entry * ENTRY_BYTES;
+        int offset = buffer.getInt(base);
+        if (buffer.getInt(base + 4) < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Growable long array for collecting postings without boxing
+     */
+    static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        long[] toSortedDistinctArray() {
+            long[] sorted = toArray();
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
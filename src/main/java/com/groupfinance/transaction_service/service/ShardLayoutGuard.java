@@ -0,0 +1,57 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.ShardingProperties;
+import com.groupfinance.transaction_service.model.ShardLayout;
+import com.groupfinance.transaction_service.repository.ShardLayoutRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Refuses to start when the configured shard ring differs from the one the existing data was written
+ * with. Nothing moves rows between shards, so a resized ring would send moved groups to an empty shard.
+ * The first start records the layout; a deliberate resize means copying the moved groups' rows (and
+ * archive segments and stats) to their new shards and then updating shard_layout by hand.
+ */
+@Component
+public class ShardLayoutGuard {
+
+    private final ShardLayoutRepository layoutRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int virtualNodes;
+
+    public ShardLayoutGuard(ShardLayoutRepository layoutRepository, ShardRouter shardRouter,
+                            TransactionTemplate transactionTemplate, ShardingProperties properties) {
+        this.layoutRepository = layoutRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.virtualNodes = properties.getVirtualNodes();
+    }
+
+    @PostConstruct
+    public void verify() {
+        ShardLayout recorded = shardRouter.onShard(0, () -> transactionTemplate.execute(status ->
+            layoutRepository.findById(ShardLayout.LAYOUT_ID).orElse(null)));
+        if (recorded == null) {
+            try {
+                recorded = shardRouter.onShard(0, () -> transactionTemplate.execute(status ->
+                    layoutRepository.save(new ShardLayout(shardRouter.getShardCount(), virtualNodes))));
+            } catch (DataIntegrityViolationException e) {
+                // Another node recorded it first
+                recorded = shardRouter.onShard(0, () -> transactionTemplate.execute(status ->
+                    layoutRepository.findById(ShardLayout.LAYOUT_ID).orElseThrow()));
+            }
+        }
+        // A single shard places every group on shard 0, whatever the virtual nodes
+        boolean sameRing = recorded.getShardCount() == shardRouter.getShardCount()
+            && (recorded.getShardCount() == 1 || recorded.getVirtualNodes() == virtualNodes);
+        if (!sameRing) {
+            throw new IllegalStateException("Existing transactions were sharded over " + recorded.getShardCount() +
+                " shard(s) with " + recorded.getVirtualNodes() + " virtual nodes, but " + shardRouter.getShardCount() +
+                " shard(s) with " + virtualNodes + " virtual nodes are configured. Move the affected groups' rows " +
+                "to their new shards and update shard_layout on shard 0 before starting with the new ring.");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.ShardRoutingContext;
+import com.groupfinance.transaction_service.config.ShardingProperties;
+import com.groupfinance.transaction_service.exception.TransactionNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard of the transactions store a group or transaction lives on.
+ *
+ * Groups are placed on a consistent-hash ring (app.sharding.virtual-nodes points per shard).
+ * Resizing the ring would move the groups that land on a new shard's points, but nothing moves their
+ * rows, so ShardLayoutGuard refuses to start with a ring other than the one the data was written with.
+ * Transactions are found by ID without a lookup: IDs drawn on a shard are offset by
+ * shard << SHARD_ID_SHIFT (ShardSequenceGenerator).
+ * With sharding disabled there is a single shard and every call resolves to 0.
+ */
+@Component
+public class ShardRouter {
+
+    // 2^40 IDs per shard
+    public static final int SHARD_ID_SHIFT = 40;
+
+    private final int shardCount;
+    private final NavigableMap<Integer, Integer> ring = new TreeMap<>();
+    private final TransactionTemplate shardReadTransaction;
+    private final TransactionTemplate shardPrimaryTransaction;
+
+    public ShardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this.shardCount = properties.getShardCount();
+        // A new transaction (and connection) per shard, even when the caller has a persistence context open
+        this.shardReadTransaction = new TransactionTemplate(transactionManager);
+        this.shardReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardReadTransaction.setReadOnly(true);
+        // Not read-only, so the replica profile's routing leaves it on the primary
+        this.shardPrimaryTransaction = new TransactionTemplate(transactionManager);
+        this.shardPrimaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int point = 0; point < properties.getVirtualNodes(); point++) {
+                ring.put(hash("shard-" + shard + "#" + point), shard);
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForGroup(String groupId) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        Map.Entry<Integer, Integer> owner = ring.ceilingEntry(hash(groupId));
+        return (owner != null ? owner : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * @throws TransactionNotFoundException for an ID no configured shard could have drawn
+     */
+    public int shardOf(Long transactionId) {
+        long shard = transactionId >>> SHARD_ID_SHIFT;
+        if (shard >= shardCount) {
+            throw new TransactionNotFoundException(transactionId);
+        }
+        return (int) shard;
+    }
+
+    public static long firstIdOf(int shard) {
+        return (long) shard << SHARD_ID_SHIFT;
+    }
+
+    /**
+     * Run work against one shard. Repository calls inside pick the shard's pool when they
+     * first touch the database, so a transaction must not span shards.
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardRoutingContext.get();
+        ShardRoutingContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardRoutingContext.set(previous);
+        }
+    }
+
+    public <T> T onShardOf(Long transactionId, Supplier<T> work) {
+        return onShard(shardOf(transactionId), work);
+    }
+
+    public <T> T onGroupShard(String groupId, Supplier<T> work) {
+        return onShard(shardForGroup(groupId), work);
+    }
+
+    /**
+     * Read from one shard in its own read-only transaction - for callers that visit several shards
+     */
+    public <T> T readOnShard(int shard, Supplier<T> query) {
+        return onShard(shard, () -> shardReadTransaction.execute(status -> query.get()));
+    }
+
+    /**
+     * Run a query on every shard in turn and concatenate the results
+     */
+    public <T> List<T> onEveryShard(Supplier<? extends Collection<T>> query) {
+        List<T> results = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.addAll(readOnShard(shard, query));
+        }
+        return results;
+    }
+
+    /**
+     * Like onEveryShard, but always on the primary - for maintenance reads (cleanup sweep, deadline
+     * recovery) that act on what they find and so must not see a lagging replica
+     */
+    public <T> List<T> onEveryShardPrimary(Supplier<? extends Collection<T>> query) {
+        List<T> results = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.addAll(onShard(shard, () -> shardPrimaryTransaction.execute(status -> query.get())));
+        }
+        return results;
+    }
+
+    public Map<Integer, List<Long>> partitionByShard(Collection<Long> transactionIds) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : transactionIds) {
+            byShard.computeIfAbsent(shardOf(id), k -> new ArrayList<>()).add(id);
+        }
+        return byShard;
+    }
+
+    // FNV-1a over the UTF-8 bytes with a murmur3 finalizer - stable across JVMs and restarts
+    private static int hash(String key) {
+        int h = 0x811c9dc5;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ b) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,148 @@
+package com.groupfinance.transaction_service.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style 64-bit IDs: 41 bits of milliseconds since 2024-01-01, 10 bits of worker
+ * (one per instance) and 12 bits of sequence within the millisecond - unique across the
+ * cluster, roughly time-ordered, and monotonic on each thread.
+ *
+ * Threads take sequence numbers from the shared clock in blocks of BLOCK_SIZE with one CAS,
+ * then hand them out from a thread-local block without touching shared state. When a millisecond's
+ * 4096 numbers run out the clock borrows the next millisecond instead of waiting, and only spins
+ * if it gets more than MAX_DRIFT_MILLIS ahead of the wall clock. A clock that steps back is
+ * ignored the same way: IDs keep coming from the last millisecond issued. If it stepped back so far
+ * that the borrowed time runs out, callers wait at most MAX_WAIT_MILLIS for it to catch up and
+ * then fail with IllegalStateException rather than spin until it does.
+ */
+@Component
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_WORKER = (1 << WORKER_BITS) - 1;
+    private static final long SEQUENCES_PER_MILLI = 1L << SEQUENCE_BITS;
+    // The clock also has to hold "all 4096 taken", so it keeps one more sequence bit than an ID
+    private static final int CLOCK_SEQUENCE_BITS = SEQUENCE_BITS + 1;
+    private static final long CLOCK_SEQUENCE_MASK = (1L << CLOCK_SEQUENCE_BITS) - 1;
+    private static final int BLOCK_SIZE = 32;
+    private static final long MAX_DRIFT_MILLIS = 1000;
+    private static final long MAX_WAIT_MILLIS = 1000;
+
+    private final long workerBits;
+    // (millis since EPOCH_MILLIS << CLOCK_SEQUENCE_BITS) | next unclaimed sequence number
+    private final AtomicLong clock = new AtomicLong();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+    private final LongSupplier wallClock;
+
+    /**
+     * app.id.worker-id must differ between instances; left at -1 a free one is claimed through the
+     * cluster node table, starting from a hash of the node ID
+     */
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${app.id.worker-id:-1}") int workerId, ClusterLeaseManager clusterLeaseManager) {
+        this(workerId >= 0 ? workerId
+            : clusterLeaseManager.claimWorkerId(workerIdFor(clusterLeaseManager.getNodeId()), MAX_WORKER));
+    }
+
+    SnowflakeIdGenerator(int workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int workerId, LongSupplier wallClock) {
+        if (workerId < 0 || workerId > MAX_WORKER) {
+            throw new IllegalArgumentException("Worker ID must be between 0 and " + MAX_WORKER + ": " + workerId);
+        }
+        this.workerBits = (long) workerId << SEQUENCE_BITS;
+        this.wallClock = wallClock;
+    }
+
+    public long nextId() {
+        Block block = blocks.get();
+        if (block.next == block.end) {
+            refill(block);
+        }
+        return block.next++;
+    }
+
+    /**
+     * STK push request ID, e.g. REQ_2KJ8Z0QW1C0G
+     */
+    public String nextRequestId() {
+        return "REQ_" + Long.toString(nextId(), 36).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Mock M-Pesa receipt number, e.g. MPE2KJ8Z0QW1C0H
+     */
+    public String nextReceiptNumber() {
+        return "MPE" + Long.toString(nextId(), 36).toUpperCase(Locale.ROOT);
+    }
+
+    public int getWorkerId() {
+        return (int) (workerBits >>> SEQUENCE_BITS);
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli(EPOCH_MILLIS + (id >>> (WORKER_BITS + SEQUENCE_BITS)));
+    }
+
+    private void refill(Block block) {
+        long waitingSince = 0;
+        while (true) {
+            long now = wallClock.getAsLong() - EPOCH_MILLIS;
+            long current = clock.get();
+            long millis = current >>> CLOCK_SEQUENCE_BITS;
+            long sequence = current & CLOCK_SEQUENCE_MASK;
+            if (now > millis) {
+                millis = now;
+                sequence = 0;
+            } else if (sequence == SEQUENCES_PER_MILLI) {
+                if (millis - now >= MAX_DRIFT_MILLIS) {
+                    if (waitingSince == 0) {
+                        waitingSince = System.nanoTime();
+                    } else if (System.nanoTime() - waitingSince > TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MILLIS)) {
+                        throw new IllegalStateException("Clock is " + (millis - now)
+                            + " ms behind the last issued ID; not waiting for it to catch up");
+                    }
+                    Thread.onSpinWait();
+                    continue;
+                }
+                millis++;
+                sequence = 0;
+            }
+            long end = Math.min(sequence + BLOCK_SIZE, SEQUENCES_PER_MILLI);
+            if (clock.compareAndSet(current, (millis << CLOCK_SEQUENCE_BITS) | end)) {
+                long base = (millis << (WORKER_BITS + SEQUENCE_BITS)) | workerBits;
+                // Added, not OR-ed: end may be 4096, one past the last sequence number
+                block.next = base + sequence;
+                block.end = base + end;
+                return;
+            }
+        }
+    }
+
+    // FNV-1a of the node ID folded to WORKER_BITS
+    static int workerIdFor(String nodeId) {
+        int h = 0x811c9dc5;
+        for (byte b : nodeId.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ b) * 0x01000193;
+        }
+        return (h ^ (h >>> 16)) & MAX_WORKER;
+    }
+
+    private static final class Block {
+        private long next;
+        private long end;
+    }
+}
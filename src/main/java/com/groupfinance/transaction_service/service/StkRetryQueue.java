@@ -0,0 +1,192 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.StkRetryStatus;
+import com.groupfinance.transaction_service.model.StkRetryTask;
+import com.groupfinance.transaction_service.repository.StkRetryTaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue of STK pushes to retry, with exponential backoff + jitter,
+ * a max-attempt policy and a dead-letter state. Owns the worker pool that drains it.
+ */
+@Service
+public class StkRetryQueue {
+
+    private static final Set<StkRetryStatus> ACTIVE = EnumSet.of(StkRetryStatus.QUEUED, StkRetryStatus.IN_PROGRESS);
+
+    private final StkRetryTaskRepository retryRepository;
+    private final ExecutorService workers;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int claimBatchSize;
+    private final long staleClaimMillis;
+    // Cleared on shutdown so no new batches are claimed while in-flight pushes drain
+    private volatile boolean accepting = true;
+
+    public StkRetryQueue(StkRetryTaskRepository retryRepository,
+                         @Value("${app.stk-retry.workers:4}") int workerCount,
+                         @Value("${app.stk-retry.max-attempts:5}") int maxAttempts,
+                         @Value("${app.stk-retry.base-delay-ms:2000}") long baseDelayMillis,
+                         @Value("${app.stk-retry.max-delay-ms:60000}") long maxDelayMillis,
+                         @Value("${app.stk-retry.claim-batch-size:50}") int claimBatchSize,
+                         @Value("${app.stk-retry.stale-claim-ms:120000}") long staleClaimMillis) {
+        this.retryRepository = retryRepository;
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "stk-retry-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.claimBatchSize = claimBatchSize;
+        this.staleClaimMillis = staleClaimMillis;
+    }
+
+    /**
+     * Queue the first retry for a transaction whose initial STK push failed
+     */
+    @Transactional
+    public void enqueue(Long transactionId, String error) {
+        retryRepository.save(new StkRetryTask(transactionId, 1, nextAttemptAfter(1), truncate(error)));
+    }
+
+    /**
+     * Claim up to one batch of due entries for this node: one SELECT + one UPDATE
+     */
+    @Transactional
+    public List<StkRetryTask> claimDue() {
+        if (!accepting) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        retryRepository.requeueStale(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(staleClaimMillis)),
+            StkRetryStatus.QUEUED, StkRetryStatus.IN_PROGRESS);
+        
+        List<Long> dueIds = retryRepository.findDueIds(StkRetryStatus.QUEUED, now, PageRequest.of(0, claimBatchSize));
+        if (dueIds.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        retryRepository.claim(dueIds, token, now, StkRetryStatus.QUEUED, StkRetryStatus.IN_PROGRESS);
+        return retryRepository.findByClaimToken(token);
+    }
+
+    /**
+     * @return false if the claim went stale meanwhile - the entry belongs to another attempt and is left alone
+     */
+    @Transactional
+    public boolean markDone(StkRetryTask task) {
+        return finish(task, StkRetryStatus.DONE, task.getAttempts(), task.getNextAttemptAt(), task.getLastError());
+    }
+
+    /**
+     * Record a failed attempt: reschedule with backoff, or dead-letter once attempts run out
+     * @return true if the entry was dead-lettered (never for a stale claim)
+     */
+    @Transactional
+    public boolean markFailed(StkRetryTask task, String error) {
+        if (task.getAttempts() >= maxAttempts) {
+            return finish(task, StkRetryStatus.DEAD_LETTER, task.getAttempts(), task.getNextAttemptAt(), truncate(error));
+        }
+        int attempts = task.getAttempts() + 1;
+        finish(task, StkRetryStatus.QUEUED, attempts, nextAttemptAfter(attempts), truncate(error));
+        return false;
+    }
+
+    /**
+     * Put an entry back without using up an attempt - for pushes that were never sent
+     * (circuit open, bulkhead full). Jittered so queued entries don't all hit a half-open breaker at once.
+     */
+    @Transactional
+    public void reschedule(StkRetryTask task, String error, long delayMillis) {
+        long delay = delayMillis + ThreadLocalRandom.current().nextLong(baseDelayMillis + 1);
+        finish(task, StkRetryStatus.QUEUED, task.getAttempts(),
+            LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delay)), truncate(error));
+    }
+
+    /**
+     * Subset of these transactions that still have a retry outstanding. Not read-only: the cleanup sweep
+     * fails whatever isn't listed, so this must read the primary rather than a lagging replica.
+     */
+    @Transactional
+    public Set<Long> findActive(Collection<Long> transactionIds) {
+        if (transactionIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(retryRepository.findActiveTransactionIds(transactionIds, ACTIVE));
+    }
+
+    public void submit(Runnable work) {
+        workers.execute(work);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Stop claiming and wait for in-flight pushes to finish. Anything still running after the timeout
+     * is interrupted; its claim goes stale and is re-queued by the next node to drain the queue.
+     * @return true if every in-flight push finished
+     */
+    public boolean drain(long timeoutMillis) throws InterruptedException {
+        accepting = false;
+        workers.shutdown();
+        if (workers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        workers.shutdownNow();
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        workers.shutdown();
+    }
+
+    // Conditional on the claim token: a worker that outlived its claim drops its outcome
+    private boolean finish(StkRetryTask task, StkRetryStatus status, int attempts, LocalDateTime nextAttemptAt,
+                           String lastError) {
+        int updated = retryRepository.finish(task.getId(), task.getClaimToken(), StkRetryStatus.IN_PROGRESS,
+            status, attempts, nextAttemptAt, lastError, LocalDateTime.now());
+        if (updated == 0) {
+            System.err.println("STK retry for transaction " + task.getTransactionId() +
+                " lost its claim before finishing - dropping its " + status + " outcome");
+            return false;
+        }
+        return true;
+    }
+
+    // Exponential backoff with "equal jitter": half fixed, half random
+    private LocalDateTime nextAttemptAfter(int attempt) {
+        long exponential = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        long delay = exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+        return LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delay));
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 255 ? error.substring(0, 255) : error;
+    }
+}
@@ -0,0 +1,73 @@
+package com.groupfinance.transaction_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.exception.TransactionException;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Pre-serialized JSON for transactions in a terminal state (COMPLETED, FAILED, CANCELLED).
+ * Their response can never change again, so the bytes and ETag are computed once
+ * and served directly on every later poll.
+ */
+@Component
+public class TerminalResponseCache {
+
+    private final Map<Long, CachedResponse> cache = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+
+    public TerminalResponseCache(ObjectMapper objectMapper,
+                                 @Value("${app.response-cache.max-entries:10000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cached response for this transaction, only if it belongs to the user
+     */
+    public CachedResponse get(Long transactionId, String userId) {
+        CachedResponse cached = cache.get(transactionId);
+        return cached != null && cached.ownerUserId().equals(userId) ? cached : null;
+    }
+
+    /**
+     * Serialize and cache the response if the transaction is terminal; returns null otherwise
+     */
+    public CachedResponse putIfTerminal(TransactionResponse transaction, String message) {
+        if (transaction.getStatus() == TransactionStatus.PENDING) {
+            return null;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ApiResponse.success(message, transaction));
+        } catch (JsonProcessingException e) {
+            throw new TransactionException("Failed to serialize transaction " + transaction.getId(), e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String etag = "\"" + transaction.getId() + "-" + Long.toHexString(crc.getValue()) + "\"";
+        
+        CachedResponse cached = new CachedResponse(body, etag, transaction.getCreatedByUserId());
+        if (cache.size() >= maxEntries) {
+            // Bounded: drop an arbitrary entry, it will simply be rebuilt on its next read
+            Iterator<Long> it = cache.keySet().iterator();
+            if (it.hasNext()) {
+                cache.remove(it.next());
+            }
+        }
+        cache.put(transaction.getId(), cached);
+        return cached;
+    }
+
+    public record CachedResponse(byte[] body, String etag, String ownerUserId) {}
+}
@@ -0,0 +1,235 @@
+package com.groupfinance.transaction_service.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.groupfinance.transaction_service.exception.TransactionException;
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.model.TransactionArchiveSegment;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.repository.TransactionArchiveSegmentRepository;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves old terminal transactions out of the hot table into compressed monthly
+ * archive segments, so sweeps and dashboards only ever touch recent rows.
+ * Each shard archives into its own segment table; lookups run on the caller's shard.
+ * Every node runs the pass, but only over the lease partitions it holds, and each batch is
+ * locked and deleted before its segment is written, so no row can be archived twice.
+ */
+@Service
+public class TransactionArchiver {
+
+    private static final Set<TransactionStatus> TERMINAL_STATUSES =
+        EnumSet.of(TransactionStatus.COMPLETED, TransactionStatus.FAILED, TransactionStatus.CANCELLED);
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final TypeReference<List<Transaction>> ROWS = new TypeReference<>() {};
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveSegmentRepository segmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final ObjectMapper rowMapper;
+    private final int archiveAfterDays;
+    private final int batchSize;
+    // Per shard: cutoff of the last pass that drained everything before it (null until one has)
+    private final AtomicReferenceArray<LocalDateTime> completedCutoffs;
+
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               TransactionArchiveSegmentRepository segmentRepository,
+                               TransactionTemplate transactionTemplate,
+                               ShardRouter shardRouter,
+                               ClusterLeaseManager clusterLeaseManager,
+                               ObjectMapper objectMapper,
+                               @Value("${app.archive.after-days:90}") int archiveAfterDays,
+                               @Value("${app.archive.batch-size:1000}") int batchSize) {
+        this.transactionRepository = transactionRepository;
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.clusterLeaseManager = clusterLeaseManager;
+        // Field access so entity setters (which touch updatedAt/completedAt) don't run on restore
+        this.rowMapper = objectMapper.copy()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        this.archiveAfterDays = archiveAfterDays;
+        this.batchSize = batchSize;
+        this.completedCutoffs = new AtomicReferenceArray<>(shardRouter.getShardCount());
+    }
+
+    /**
+     * Archive terminal transactions older than app.archive.after-days, one batch per DB transaction
+     */
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}", initialDelayString = "${app.archive.initial-delay-ms:60000}")
+    public void archiveOldTransactions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveAfterDays);
+        int archived = 0;
+        try {
+            // Only archive the partitions this node holds a lease on
+            List<Long> partitions = clusterLeaseManager.getOwnedPartitions().stream()
+                .map(Integer::longValue).collect(Collectors.toList());
+            if (partitions.isEmpty()) {
+                return;
+            }
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int moved;
+                do {
+                    Integer result = shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> archiveBatch(cutoff, partitions)));
+                    moved = result != null ? result : 0;
+                    archived += moved;
+                } while (moved == batchSize);
+                // Other nodes drain their partitions on their own schedule; the month is only final once all have
+                boolean drained = !shardRouter.onShard(shard,
+                    () -> transactionRepository.existsByStatusInAndCreatedAtBefore(TERMINAL_STATUSES, cutoff));
+                if (drained) {
+                    completedCutoffs.set(shard, cutoff);
+                }
+            }
+            
+            if (archived > 0) {
+                System.out.println("Archived " + archived + " terminal transactions created before " + cutoff);
+            }
+        } catch (Exception e) {
+            System.err.println("Error in archiveOldTransactions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Look up an archived transaction by ID (only segments whose ID range covers it are read)
+     */
+    public Optional<Transaction> findArchived(Long transactionId) {
+        for (TransactionArchiveSegment segment : segmentRepository.findSegmentsContaining(transactionId)) {
+            for (Transaction transaction : readSegment(segment)) {
+                if (transaction.getId().equals(transactionId)) {
+                    return Optional.of(transaction);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Archived corrections of the given (archived) transactions. Corrections are created after their
+     * original, so only segments from the earliest original's month onwards are read.
+     */
+    public List<Transaction> findArchivedCorrections(Collection<Transaction> originals) {
+        Set<Long> originalIds = originals.stream().map(Transaction::getId).collect(Collectors.toSet());
+        String fromMonth = originals.stream()
+            .map(transaction -> transaction.getCreatedAt().format(MONTH))
+            .min(Comparator.naturalOrder())
+            .orElseThrow();
+        List<Transaction> corrections = new ArrayList<>();
+        for (TransactionArchiveSegment segment : segmentRepository.findByArchiveMonthGreaterThanEqualOrderByFirstTransactionIdAsc(fromMonth)) {
+            for (Transaction transaction : readSegment(segment)) {
+                if (transaction.getOriginalTransactionId() != null && originalIds.contains(transaction.getOriginalTransactionId())) {
+                    corrections.add(transaction);
+                }
+            }
+        }
+        return corrections;
+    }
+
+    /**
+     * All archived transactions created in one month (yyyy-MM)
+     */
+    public List<Transaction> findArchivedByMonth(String month) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (TransactionArchiveSegment segment : segmentRepository.findByArchiveMonthOrderByFirstTransactionIdAsc(month)) {
+            transactions.addAll(readSegment(segment));
+        }
+        return transactions;
+    }
+
+    /**
+     * True once every terminal row of the month (yyyy-MM) on the shard has been archived, so its archive
+     * contents can no longer change: a pass on this instance has drained the shard up to a cutoff at least
+     * a day past the month's end (the extra day covers stuck PENDING rows being expired).
+     * Until the first pass after startup nothing counts as sealed.
+     */
+    public boolean isMonthSealed(String month, int shard) {
+        LocalDateTime completedCutoff = completedCutoffs.get(shard);
+        if (completedCutoff == null) {
+            return false;
+        }
+        try {
+            LocalDateTime sealedAt = YearMonth.parse(month, MONTH).plusMonths(1).atDay(1).plusDays(1).atStartOfDay();
+            return !completedCutoff.isBefore(sealedAt);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff, List<Long> partitions) {
+        List<Transaction> batch = transactionRepository.lockArchivableInPartitions(
+            TERMINAL_STATUSES, cutoff, clusterLeaseManager.getPartitionCount(), partitions, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        // Delete first: rows someone else already archived must not end up in a second segment
+        int deleted = transactionRepository.deleteByIdIn(batch.stream().map(Transaction::getId).toList());
+        if (deleted != batch.size()) {
+            throw new TransactionException("Archive batch changed underneath us: deleted " + deleted + " of " + batch.size());
+        }
+        
+        Map<String, List<Transaction>> byMonth = new LinkedHashMap<>();
+        for (Transaction transaction : batch) {
+            byMonth.computeIfAbsent(transaction.getCreatedAt().format(MONTH), k -> new ArrayList<>()).add(transaction);
+        }
+        
+        List<TransactionArchiveSegment> segments = new ArrayList<>();
+        byMonth.forEach((month, rows) -> segments.add(new TransactionArchiveSegment(month,
+            rows.get(0).getId(), rows.get(rows.size() - 1).getId(), rows.size(), compress(rows))));
+        
+        segmentRepository.saveAll(segments);
+        return batch.size();
+    }
+
+    private byte[] compress(List<Transaction> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            rowMapper.writeValue(out, rows);
+        } catch (IOException e) {
+            throw new TransactionException("Failed to compress archive segment", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<Transaction> readSegment(TransactionArchiveSegment segment) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(segment.getPayload()))) {
+            return rowMapper.readValue(in, ROWS);
+        } catch (IOException e) {
+            throw new TransactionException("Failed to read archive segment " + segment.getId(), e);
+        }
+    }
+}
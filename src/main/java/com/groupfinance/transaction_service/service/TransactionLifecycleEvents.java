@@ -0,0 +1,108 @@
+package com.groupfinance.transaction_service.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for each step of a transaction's lifecycle in TransactionServiceImpl.
+ * They cost next to nothing until a recording enables them (see FlightRecordingConfig and the jfr
+ * profile); the built-in duration is the whole step, dbTime the part spent in repository calls.
+ * LifecycleRecordingAnalyzer turns a recording into a per-phase latency breakdown.
+ */
+public final class TransactionLifecycleEvents {
+
+    public static final String PREFIX = "com.groupfinance.transaction.";
+
+    private TransactionLifecycleEvents() {
+    }
+
+    @Category({"Group Finance", "Transaction Lifecycle"})
+    @StackTrace(false)
+    public abstract static class PhaseEvent extends Event {
+
+        @Label("Transaction ID")
+        public long transactionId;
+
+        @Label("Status")
+        @Description("Status after the step, or the exception name if it failed")
+        public String status;
+
+        @Label("DB Time")
+        @Timespan(Timespan.NANOSECONDS)
+        public long dbTime;
+    }
+
+    @Name(PREFIX + "Validate")
+    @Label("Validate")
+    @Description("Anomaly screening and the M-Pesa availability check, before anything is written")
+    public static final class Validate extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "FirstSave")
+    @Label("First Save")
+    @Description("Insert of the PENDING row on the group's shard, plus search indexing")
+    public static final class FirstSave extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "StkPush")
+    @Label("STK Push")
+    public static final class StkPush extends PhaseEvent {
+
+        @Label("Attempt")
+        @Description("1 for the push made while initiating, 2 and up for background retries")
+        public int attempt;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name(PREFIX + "SecondSave")
+    @Label("Second Save")
+    @Description("Update with the STK push result (or the retry marker)")
+    public static final class SecondSave extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "AutoComplete")
+    @Label("Auto-Complete")
+    public static final class AutoComplete extends PhaseEvent {
+
+        @Label("Batch Size")
+        @Description("Transactions completed together; 1 for a timer, more for recovered deadlines (transactionId is then the first)")
+        public int batchSize;
+
+        @Label("Lateness")
+        @Description("How long after its completion deadline the transaction was completed")
+        @Timespan(Timespan.NANOSECONDS)
+        public long lateness;
+    }
+
+    @Name(PREFIX + "Cancel")
+    @Label("Cancel")
+    public static final class Cancel extends PhaseEvent {
+    }
+
+    @Name(PREFIX + "CleanupSweep")
+    @Label("Cleanup Sweep")
+    @Category({"Group Finance", "Transaction Lifecycle"})
+    @StackTrace(false)
+    public static final class CleanupSweep extends Event {
+
+        @Label("Pending")
+        public int pending;
+
+        @Label("Completed")
+        public int completed;
+
+        @Label("Re-queued")
+        public int requeued;
+
+        @Label("DB Time")
+        @Timespan(Timespan.NANOSECONDS)
+        public long dbTime;
+    }
+}
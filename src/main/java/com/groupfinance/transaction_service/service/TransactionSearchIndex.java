@@ -0,0 +1,404 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.dto.SearchDocument;
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over description, category and M-Pesa receipt number.
+ *
+ * New terms go into an in-memory buffer (LSM style) that is flushed to an immutable, memory-mapped
+ * segment (SearchIndexSegment) once it holds app.search.flush-docs documents; segments are merged when
+ * there are more than app.search.max-segments. Each document also gets a user and a group pseudo-term;
+ * a search starts from the scope's posting list and narrows it term by term.
+ *
+ * Local inserts are indexed straight away; a scheduled refresh tails updatedAt on every shard to pick up
+ * receipts, edits and other instances' writes. Postings are only ever added - a stale match (say, an old
+ * receipt) is harmless because results are loaded from the table, not from the index.
+ */
+@Service
+public class TransactionSearchIndex {
+
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final int REFRESH_PAGE_SIZE = 1000;
+    // Re-read a little history each refresh: rows committed late can carry an older updatedAt
+    private static final long REFRESH_OVERLAP_SECONDS = 5;
+    private static final String USER_TERM = "\u0000u:";
+    private static final String GROUP_TERM = "\u0000g:";
+    private static final String MANIFEST = "manifest.properties";
+    // Earliest updatedAt to read from - LocalDateTime.MIN is out of range for most databases
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final Path directory;
+    private final boolean clearOnStart;
+    private final int flushDocs;
+    private final int maxSegments;
+
+    // Guards the buffers and the segment list; segment contents are immutable
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private TreeMap<String, TreeSet<Long>> liveBuffer = new TreeMap<>();
+    private Set<Long> liveDocs = new HashSet<>();
+    // Buffer being written to a segment - still searched until the segment is published
+    private TreeMap<String, TreeSet<Long>> flushingBuffer = new TreeMap<>();
+    private List<SearchIndexSegment> segments = List.of();
+    private LocalDateTime watermark = BEGINNING;
+    // Watermark as of the last flush - everything refreshed before it is in a segment
+    private LocalDateTime persistedWatermark = BEGINNING;
+    private long nextSegmentNumber = 1;
+
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  ShardRouter shardRouter,
+                                  @Value("${app.search.directory:./data/search-index}") String directory,
+                                  @Value("${app.search.clear-on-start:true}") boolean clearOnStart,
+                                  @Value("${app.search.flush-docs:10000}") int flushDocs,
+                                  @Value("${app.search.max-segments:8}") int maxSegments) {
+        this.transactionRepository = transactionRepository;
+        this.shardRouter = shardRouter;
+        this.directory = Paths.get(directory);
+        this.clearOnStart = clearOnStart;
+        this.flushDocs = flushDocs;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Reopen the segments listed in the manifest, or start empty when the database doesn't outlive the process
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        Path manifest = directory.resolve(MANIFEST);
+        if (clearOnStart || !Files.exists(manifest)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(manifest)) {
+            properties.load(in);
+        }
+        List<SearchIndexSegment> opened = new ArrayList<>();
+        for (String name : properties.getProperty("segments", "").split(",")) {
+            if (!name.isBlank()) {
+                opened.add(SearchIndexSegment.open(directory.resolve(name)));
+            }
+        }
+        segments = List.copyOf(opened);
+        watermark = LocalDateTime.parse(properties.getProperty("watermark", BEGINNING.toString()));
+        persistedWatermark = watermark;
+        nextSegmentNumber = Long.parseLong(properties.getProperty("next-segment", "1"));
+        System.out.println("Search index opened with " + segments.size() + " segments, caught up to " + watermark);
+    }
+
+    /**
+     * Index a transaction that was just saved on this instance, so it is searchable before the next refresh
+     */
+    public void index(Transaction transaction) {
+        index(new SearchDocument(transaction.getId(), transaction.getCreatedByUserId(), transaction.getGroupId(),
+            transaction.getDescription(), transaction.getCategory(), transaction.getMpesaReceiptNumber(),
+            transaction.getUpdatedAt()));
+    }
+
+    private void index(SearchDocument document) {
+        Set<String> terms = new HashSet<>();
+        tokenize(document.description(), terms);
+        tokenize(document.mpesaReceiptNumber(), terms);
+        if (document.category() != null) {
+            tokenize(document.category().name(), terms);
+        }
+        terms.add(USER_TERM + document.createdByUserId());
+        terms.add(GROUP_TERM + document.groupId());
+
+        lock.writeLock().lock();
+        try {
+            for (String term : terms) {
+                liveBuffer.computeIfAbsent(term, k -> new TreeSet<>()).add(document.id());
+            }
+            liveDocs.add(document.id());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Catch up with rows changed on any shard since the last refresh, then flush and merge as needed
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms:5000}", initialDelayString = "${app.search.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        try {
+            LocalDateTime roundStart = LocalDateTime.now();
+            LocalDateTime since = watermark.equals(BEGINNING) ? watermark : watermark.minusSeconds(REFRESH_OVERLAP_SECONDS);
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                LocalDateTime fromTime = since;
+                long fromId = Long.MIN_VALUE;
+                List<SearchDocument> page;
+                do {
+                    LocalDateTime pageTime = fromTime;
+                    long pageId = fromId;
+                    page = shardRouter.readOnShard(shard, () -> transactionRepository.findSearchDocumentsChangedSince(
+                        pageTime, pageId, PageRequest.of(0, REFRESH_PAGE_SIZE)));
+                    for (SearchDocument document : page) {
+                        index(document);
+                    }
+                    if (!page.isEmpty()) {
+                        SearchDocument last = page.get(page.size() - 1);
+                        fromTime = last.updatedAt();
+                        fromId = last.id();
+                    }
+                } while (page.size() == REFRESH_PAGE_SIZE);
+            }
+            watermark = roundStart;
+
+            if (liveDocCount() >= flushDocs) {
+                flush();
+            }
+            if (segments.size() > maxSegments) {
+                merge();
+            }
+        } catch (Exception e) {
+            System.err.println("Error in search index refresh: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Persist the in-memory buffer on shutdown so a durable database doesn't need a full re-index
+     */
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("Error flushing search index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * IDs of transactions matching every query token (each as a prefix) within the scope, ascending.
+     * The scope is the group when one is given, otherwise the user's own transactions.
+     */
+    public long[] search(String query, String userId, String groupId) {
+        Set<String> tokens = new HashSet<>();
+        tokenize(query, tokens);
+        if (tokens.isEmpty()) {
+            return new long[0];
+        }
+        String scope = groupId != null ? GROUP_TERM + groupId : USER_TERM + userId;
+
+        lock.readLock().lock();
+        try {
+            // Start from the scope's postings and test each candidate against the terms a token expands to,
+            // so a short prefix costs in proportion to the scope rather than to every group's postings
+            long[] matches = lookup(scope);
+            for (String token : tokens) {
+                if (matches.length == 0) {
+                    break;
+                }
+                matches = retainPrefixMatches(matches, token);
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] lookup(String term) {
+        SearchIndexSegment.LongList postings = new SearchIndexSegment.LongList();
+        collectBuffer(liveBuffer, term, postings);
+        collectBuffer(flushingBuffer, term, postings);
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        for (SearchIndexSegment segment : segments) {
+            segment.collectTerm(key, postings);
+        }
+        return postings.toSortedDistinctArray();
+    }
+
+    private static void collectBuffer(TreeMap<String, TreeSet<Long>> buffer, String term,
+                                      SearchIndexSegment.LongList out) {
+        TreeSet<Long> exact = buffer.get(term);
+        if (exact != null) {
+            for (Long id : exact) {
+                out.add(id);
+            }
+        }
+    }
+
+    // Candidates (sorted) that appear under at least one term starting with prefix
+    private long[] retainPrefixMatches(long[] candidates, String prefix) {
+        boolean[] hit = new boolean[candidates.length];
+        int remaining = markBuffer(liveBuffer, prefix, candidates, hit, candidates.length);
+        remaining = markBuffer(flushingBuffer, prefix, candidates, hit, remaining);
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        for (SearchIndexSegment segment : segments) {
+            if (remaining == 0) {
+                break;
+            }
+            remaining = segment.markPrefixMatches(key, candidates, hit, remaining);
+        }
+        long[] retained = new long[candidates.length - remaining];
+        int n = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (hit[i]) {
+                retained[n++] = candidates[i];
+            }
+        }
+        return retained;
+    }
+
+    // Returns how many candidates are still unmatched
+    private static int markBuffer(TreeMap<String, TreeSet<Long>> buffer, String prefix, long[] candidates,
+                                  boolean[] hit, int remaining) {
+        // Scope pseudo-terms start with \u0000, so a user prefix can never reach them
+        SortedMap<String, TreeSet<Long>> range = buffer.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (TreeSet<Long> ids : range.values()) {
+            for (int i = 0; i < candidates.length && remaining > 0; i++) {
+                if (!hit[i] && ids.contains(candidates[i])) {
+                    hit[i] = true;
+                    remaining--;
+                }
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return remaining;
+    }
+
+    // Lowercase runs of letters and digits; "Fuel - KBX123" -> fuel, kbx123
+    private static void tokenize(String text, Set<String> out) {
+        if (text == null) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                out.add(lower.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)));
+                start = -1;
+            }
+        }
+    }
+
+    private int liveDocCount() {
+        lock.readLock().lock();
+        try {
+            return liveDocs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called with the monitor held (refresh/close), so only one flush or merge runs at a time
+    private void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            persistedWatermark = watermark;
+            if (liveBuffer.isEmpty()) {
+                writeManifest();
+                return;
+            }
+            flushingBuffer = liveBuffer;
+            liveBuffer = new TreeMap<>();
+            liveDocs = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Written outside the lock; searches keep reading the flushing buffer meanwhile
+        SearchIndexSegment segment = SearchIndexSegment.write(directory.resolve(nextSegmentName()), flushingBuffer);
+
+        lock.writeLock().lock();
+        try {
+            List<SearchIndexSegment> published = new ArrayList<>(segments);
+            published.add(segment);
+            segments = List.copyOf(published);
+            flushingBuffer = new TreeMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeManifest();
+    }
+
+    private void merge() throws IOException {
+        List<SearchIndexSegment> merging = segments;
+        TreeMap<String, List<Long>> combined = new TreeMap<>();
+        for (SearchIndexSegment segment : merging) {
+            segment.forEachTerm((term, ids) -> {
+                List<Long> postings = combined.computeIfAbsent(term, k -> new ArrayList<>());
+                for (long id : ids) {
+                    postings.add(id);
+                }
+            });
+        }
+        SearchIndexSegment merged = SearchIndexSegment.write(directory.resolve(nextSegmentName()), combined);
+
+        lock.writeLock().lock();
+        try {
+            List<SearchIndexSegment> published = new ArrayList<>(segments);
+            published.removeAll(merging);
+            published.add(0, merged);
+            segments = List.copyOf(published);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeManifest();
+        // Mappings of the old files stay valid for searches still holding them, even once unlinked
+        for (SearchIndexSegment old : merging) {
+            Files.deleteIfExists(old.getPath());
+        }
+        System.out.println("Search index merged " + merging.size() + " segments");
+    }
+
+    private String nextSegmentName() {
+        return String.format("segment-%08d.idx", nextSegmentNumber++);
+    }
+
+    // The buffer isn't persisted, so a restart re-reads everything after the last flush
+    private void writeManifest() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("segments", segments.stream()
+            .map(segment -> segment.getPath().getFileName().toString())
+            .collect(Collectors.joining(",")));
+        properties.setProperty("watermark", persistedWatermark.toString());
+        properties.setProperty("next-segment", Long.toString(nextSegmentNumber));
+        Path tmp = directory.resolve(MANIFEST + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            properties.store(out, "transaction search index");
+        }
+        Files.move(tmp, directory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
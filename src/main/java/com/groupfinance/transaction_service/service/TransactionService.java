@@ -1,7 +1,9 @@
 package com.groupfinance.transaction_service.service;
 
+import com.groupfinance.transaction_service.dto.CorrectionChainResponse;
 import com.groupfinance.transaction_service.dto.TransactionRequest;
 import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
 import com.groupfinance.transaction_service.model.TransactionStatus;
 
 import java.util.List;
@@ -18,16 +20,28 @@ public interface TransactionService {
     TransactionResponse createCorrectionTransaction(Long originalTransactionId, TransactionRequest request, String userId);
     
     // Get all transactions for a user
-    List<TransactionResponse> getUserTransactions(String userId);
+    List<TransactionSummary> getUserTransactions(String userId);
     
     // Get a specific transaction by ID
     TransactionResponse getTransactionById(Long transactionId, String userId);
     
-    // Get all transactions (for dashboard - will be filtered by group in integration)
-    List<TransactionResponse> getAllTransactions();
+    // Get all transactions of a group (for dashboard)
+    List<TransactionSummary> getAllTransactions(String groupId);
     
-    // Get transactions by status
-    List<TransactionResponse> getTransactionsByStatus(TransactionStatus status);
+    // Get a group's transactions by status
+    List<TransactionSummary> getTransactionsByStatus(String groupId, TransactionStatus status);
+    
+    // Get a group's archived transactions created in a month (yyyy-MM)
+    List<TransactionResponse> getArchivedTransactions(String groupId, String month);
+    
+    // Search a group's (or else the user's own) transactions by description, category or receipt prefix
+    List<TransactionSummary> searchTransactions(String query, String userId, String groupId, int limit);
+    
+    // Resolve the correction tree and net effective amount of a group's transaction
+    CorrectionChainResponse getCorrectionChain(Long transactionId, String groupId);
+    
+    // Resolve correction trees for several of a group's transactions at once
+    List<CorrectionChainResponse> getCorrectionChains(List<Long> transactionIds, String groupId);
     
     // Simulate M-Pesa callback (for testing)
     TransactionResponse simulateMpesaCallback(Long transactionId, boolean success, String receiptNumber);
@@ -1,22 +1,54 @@
 package com.groupfinance.transaction_service.service;
 
+import com.groupfinance.transaction_service.dto.CorrectionChainResponse;
+import com.groupfinance.transaction_service.dto.PendingDeadline;
 import com.groupfinance.transaction_service.dto.TransactionRequest;
 import com.groupfinance.transaction_service.dto.TransactionResponse;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
 import com.groupfinance.transaction_service.exception.InvalidTransactionOperationException;
+import com.groupfinance.transaction_service.exception.MpesaUnavailableException;
 import com.groupfinance.transaction_service.exception.TransactionNotFoundException;
+import com.groupfinance.transaction_service.model.StkRetryTask;
 import com.groupfinance.transaction_service.model.Transaction;
 import com.groupfinance.transaction_service.model.TransactionCategory;
 import com.groupfinance.transaction_service.model.TransactionStatus;
 import com.groupfinance.transaction_service.model.TransactionType;
 import com.groupfinance.transaction_service.repository.TransactionRepository;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.AutoComplete;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.Cancel;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.CleanupSweep;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.FirstSave;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.PhaseEvent;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.SecondSave;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.StkPush;
+import com.groupfinance.transaction_service.service.TransactionLifecycleEvents.Validate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,20 +57,78 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final MpesaMockService mpesaMockService;
+    private final MpesaGateway mpesaGateway;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TransactionArchiver transactionArchiver;
+    private final StkRetryQueue stkRetryQueue;
+    private final TaskScheduler taskScheduler;
+    private final ClusterLeaseManager clusterLeaseManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionSearchIndex searchIndex;
+    private final AnomalyDetector anomalyDetector;
+    private final TransactionStatsService statsService;
     
     // 25-second cancellation and auto-completion window
     private static final int AUTO_COMPLETION_SECONDS = 25;
+    
+    private static final String AUTO_COMPLETED_RESULT =
+        "AUTO_COMPLETED: Transaction automatically completed after " + AUTO_COMPLETION_SECONDS + " seconds";
+    
+    // Rows per transaction when completing overdue deadlines in bulk
+    private static final int RECOVERY_BATCH_SIZE = 500;
+    
+    // Resolved correction trees whose members are all terminal (keyed by root transaction ID), with their member IDs
+    private final Map<Long, CachedChain> terminalChainCache = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_CHAINS = 10_000;
 
     @Autowired
-    public TransactionServiceImpl(TransactionRepository transactionRepository, MpesaMockService mpesaMockService) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, MpesaMockService mpesaMockService,
+                                  MpesaGateway mpesaGateway, ReadYourWritesTracker readYourWritesTracker,
+                                  TransactionArchiver transactionArchiver, StkRetryQueue stkRetryQueue,
+                                  TaskScheduler taskScheduler, ClusterLeaseManager clusterLeaseManager,
+                                  TransactionTemplate transactionTemplate, ShardRouter shardRouter,
+                                  TransactionSearchIndex searchIndex, AnomalyDetector anomalyDetector,
+                                  TransactionStatsService statsService) {
         this.transactionRepository = transactionRepository;
         this.mpesaMockService = mpesaMockService;
+        this.mpesaGateway = mpesaGateway;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.transactionArchiver = transactionArchiver;
+        this.stkRetryQueue = stkRetryQueue;
+        this.taskScheduler = taskScheduler;
+        this.clusterLeaseManager = clusterLeaseManager;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.searchIndex = searchIndex;
+        this.anomalyDetector = anomalyDetector;
+        this.statsService = statsService;
     }
 
+    /**
+     * Runs without an outer transaction: each save commits on its own, so no
+     * connection is held while waiting on the STK push
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionResponse initiateTransaction(TransactionRequest request, String userId) {
-        // Validate request
-        validateTransactionRequest(request);
+        // Request fields were validated by @Valid in the controller (TransactionRequest constraints)
+        
+        // Lifecycle events for JFR; committed only while a recording has them enabled
+        Validate validate = new Validate();
+        validate.begin();
+        try {
+            // Fail fast while the M-Pesa circuit is open - no point creating a row
+            mpesaGateway.ensureAvailable();
+            
+            // Velocity and amount checks against the user's and phone's recent activity - may hold the request
+            anomalyDetector.check(userId, request.getMpesaPhoneNumber(), request.getAmount());
+        } catch (RuntimeException e) {
+            validate.status = e.getClass().getSimpleName();
+            validate.commit();
+            throw e;
+        }
+        validate.end();
         
         // Determine transaction type
         TransactionType type = (request.getOriginalTransactionId() != null) ? 
@@ -49,56 +139,86 @@ public class TransactionServiceImpl implements TransactionService {
             request.getDescription(), request.getCategory(), userId);
         
         transaction.setMpesaPhoneNumber(request.getMpesaPhoneNumber());
+        transaction.setGroupId(request.getGroupId());
         
         // For correction transactions, link to original
         if (type == TransactionType.CORRECTION) {
             transaction.setOriginalTransactionId(request.getOriginalTransactionId());
         }
         
-        // Save to get ID first
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        // Save to get ID first - on the group's shard, which also fixes the ID range
+        FirstSave firstSave = new FirstSave();
+        firstSave.begin();
+        long dbStarted = System.nanoTime();
+        Transaction savedTransaction = shardRouter.onGroupShard(request.getGroupId(),
+            () -> transactionRepository.save(transaction));
+        firstSave.dbTime = System.nanoTime() - dbStarted;
+        // Only transactions that exist count towards the velocity windows
+        anomalyDetector.record(userId, request.getMpesaPhoneNumber(), request.getAmount());
+        readYourWritesTracker.recordWrite(userId);
+        searchIndex.index(savedTransaction);
+        commit(firstSave, savedTransaction);
+        // Validation ran before the ID existed; its timing was fixed by end() above
+        commit(validate, savedTransaction);
+        
+        // A new correction changes every cached tree that contains its original
+        if (type == TransactionType.CORRECTION) {
+            evictCorrectionChains(request.getOriginalTransactionId());
+        }
         
+        StkPush stkPush = new StkPush();
+        stkPush.attempt = 1;
+        stkPush.begin();
+        String requestId;
         try {
             // Simulate M-Pesa STK Push initiation
-            String requestId = mpesaMockService.initiateStkPush(
+            requestId = mpesaGateway.initiateStkPush(
                 request.getMpesaPhoneNumber(), 
                 request.getAmount(), 
                 request.getDescription()
             );
-            
-            savedTransaction.setMpesaRequestId(requestId);
-            
-            // SIMULATE IMMEDIATE SUCCESS/FAILURE - NO PENDING STATE
-            // For testing: Use specific phone number to simulate failure
-            if (request.getMpesaPhoneNumber().equals("254700000000")) {
-                savedTransaction.setStatus(TransactionStatus.FAILED);
-                savedTransaction.setMpesaCallbackResult("SIMULATED_FAILURE: Insufficient funds");
-            } else {
-                // Schedule automatic completion after 25 seconds
-                scheduleAutoCompletion(savedTransaction.getId());
-            }
-            
-            // Save updated transaction
-            savedTransaction = transactionRepository.save(savedTransaction);
-            
         } catch (Exception e) {
-            // If M-Pesa initiation fails, mark as failed immediately
-            savedTransaction.setStatus(TransactionStatus.FAILED);
-            savedTransaction.setMpesaCallbackResult("INITIATION_FAILED: " + e.getMessage());
-            transactionRepository.save(savedTransaction);
-            throw new InvalidTransactionOperationException("Failed to initiate M-Pesa payment: " + e.getMessage());
+            stkPush.transactionId = savedTransaction.getId();
+            stkPush.status = e.getClass().getSimpleName();
+            stkPush.commit();
+            // Transient M-Pesa failure: keep the transaction PENDING and retry it in the background
+            // rather than failing the payment (and having the client create a duplicate)
+            savedTransaction.setMpesaCallbackResult("INITIATION_RETRYING: " + e.getMessage());
+            savedTransaction = timedSave(new SecondSave(), savedTransaction);
+            stkRetryQueue.enqueue(savedTransaction.getId(), e.getMessage());
+            return convertToResponse(savedTransaction);
         }
+        stkPush.succeeded = true;
+        commit(stkPush, savedTransaction);
+        
+        // The payer has the prompt now - from here on nothing may push again
+        savedTransaction = recordStkPushResult(savedTransaction, requestId);
         
         return convertToResponse(savedTransaction);
     }
 
     @Override
     public TransactionResponse cancelTransaction(Long transactionId, String userId) {
-        Transaction transaction = transactionRepository.findByIdAndUserId(transactionId, userId)
-            .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+        Cancel cancel = new Cancel();
+        cancel.begin();
+        cancel.transactionId = transactionId;
+        long dbStarted = System.nanoTime();
+        Transaction transaction;
+        try {
+            transaction = shardRouter.onShardOf(transactionId,
+                () -> transactionRepository.findByIdAndUserId(transactionId, userId))
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+        } catch (RuntimeException e) {
+            cancel.dbTime = System.nanoTime() - dbStarted;
+            cancel.status = e.getClass().getSimpleName();
+            cancel.commit();
+            throw e;
+        }
+        cancel.dbTime = System.nanoTime() - dbStarted;
         
         // Validate if transaction can be cancelled
         if (transaction.getStatus() != TransactionStatus.PENDING) {
+            commit(cancel, transaction);
             throw new InvalidTransactionOperationException(
                 "Cannot cancel transaction. Current status: " + transaction.getStatus());
         }
@@ -106,6 +226,7 @@ public class TransactionServiceImpl implements TransactionService {
         // Check if within 25-second cancellation window
         long secondsElapsed = java.time.Duration.between(transaction.getCreatedAt(), LocalDateTime.now()).getSeconds();
         if (secondsElapsed > AUTO_COMPLETION_SECONDS) {
+            commit(cancel, transaction);
             // If beyond 25 seconds, transaction should already be completed by scheduler
             throw new InvalidTransactionOperationException(
                 "Cancellation window expired. Transactions can only be cancelled within " + 
@@ -113,51 +234,266 @@ public class TransactionServiceImpl implements TransactionService {
         }
         
         transaction.setStatus(TransactionStatus.CANCELLED);
-        Transaction cancelledTransaction = transactionRepository.save(transaction);
+        dbStarted = System.nanoTime();
+        Transaction cancelledTransaction = saveOnShard(transaction);
+        cancel.dbTime += System.nanoTime() - dbStarted;
+        readYourWritesTracker.recordWrite(userId);
+        commit(cancel, cancelledTransaction);
         
         return convertToResponse(cancelledTransaction);
     }
 
     /**
-     * Schedule automatic completion of pending transaction after 25 seconds
+     * Record a successful STK push and either fail (test number) or schedule auto-completion
+     */
+    private Transaction applyStkPushResult(Transaction transaction, String requestId) {
+        transaction.setMpesaRequestId(requestId);
+        
+        // SIMULATE IMMEDIATE SUCCESS/FAILURE - NO PENDING STATE
+        // For testing: Use specific phone number to simulate failure
+        if (mpesaMockService.shouldSimulateFailure(transaction.getMpesaPhoneNumber(), transaction.getAmount())) {
+            transaction.setStatus(TransactionStatus.FAILED);
+            transaction.setMpesaCallbackResult("SIMULATED_FAILURE: Insufficient funds");
+        } else {
+            // Persist the deadline with the row so a restart (or another node) can re-arm it, then arm the timer
+            LocalDateTime dueAt = LocalDateTime.now().plusSeconds(AUTO_COMPLETION_SECONDS);
+            transaction.setCompletionDueAt(dueAt);
+            System.out.println("Scheduling auto-completion for transaction: " + transaction.getId() + " in " + AUTO_COMPLETION_SECONDS + " seconds");
+            scheduleAutoCompletion(transaction.getId(), dueAt);
+        }
+        
+        // Save updated transaction
+        return timedSave(new SecondSave(), transaction);
+    }
+
+    /**
+     * applyStkPushResult for a push M-Pesa accepted. A failed save is not an STK failure and is never
+     * retried by pushing again: the timer armed before the save still completes the row (by conditional
+     * update), and a simulated failure is written with a conditional update of its own.
+     */
+    private Transaction recordStkPushResult(Transaction transaction, String requestId) {
+        try {
+            return applyStkPushResult(transaction, requestId);
+        } catch (Exception e) {
+            System.err.println("ERROR: Saving the STK push result for transaction " + transaction.getId() + " failed: " + e.getMessage());
+            if (transaction.getStatus() == TransactionStatus.FAILED) {
+                try {
+                    shardRouter.onShardOf(transaction.getId(), () -> transactionTemplate.execute(status ->
+                        transactionRepository.failIfPending(transaction.getId(), transaction.getMpesaCallbackResult(),
+                            LocalDateTime.now(), TransactionStatus.PENDING, TransactionStatus.FAILED)));
+                } catch (Exception retryError) {
+                    System.err.println("CRITICAL ERROR: Cannot record failed STK push for transaction " + transaction.getId());
+                }
+            }
+            return transaction;
+        }
+    }
+
+    private Transaction saveOnShard(Transaction transaction) {
+        return shardRouter.onShardOf(transaction.getId(), () -> transactionRepository.save(transaction));
+    }
+
+    /**
+     * Save a transaction that just reached COMPLETED together with its stats delta, as one DB transaction
+     */
+    private Transaction saveCompleted(Transaction transaction) {
+        return shardRouter.onShardOf(transaction.getId(), () -> transactionTemplate.execute(status -> {
+            Transaction saved = transactionRepository.save(transaction);
+            statsService.recordCompleted(List.of(saved));
+            return saved;
+        }));
+    }
+
+    /**
+     * saveOnShard as a lifecycle step of its own: the whole step is the DB write
+     */
+    private Transaction timedSave(PhaseEvent event, Transaction transaction) {
+        event.begin();
+        long dbStarted = System.nanoTime();
+        Transaction saved = saveOnShard(transaction);
+        event.dbTime = System.nanoTime() - dbStarted;
+        commit(event, saved);
+        return saved;
+    }
+
+    private static void commit(PhaseEvent event, Transaction transaction) {
+        if (event.shouldCommit()) {
+            event.transactionId = transaction.getId();
+            event.status = transaction.getStatus().name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Schedule automatic completion of pending transaction at its deadline
      * This ensures NO transaction stays in PENDING state
      */
+    public void scheduleAutoCompletion(Long transactionId, LocalDateTime dueAt) {
+        // Timer on the task scheduler - no thread sleeps for the 25 seconds
+        taskScheduler.schedule(() -> completePendingTransaction(transactionId),
+            dueAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Recover persisted deadlines for partitions this node just took over - at startup that is every
+     * partition it wins. One projection query loads them all; overdue ones are completed in batches,
+     * the rest get their timers back. Runs off the lease-renewal thread so a large backlog can't stall renewals.
+     */
     @Async
-    public void scheduleAutoCompletion(Long transactionId) {
+    @EventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onPartitionsAcquired(PartitionsAcquiredEvent event) {
         try {
-            System.out.println("Scheduling auto-completion for transaction: " + transactionId + " in " + AUTO_COMPLETION_SECONDS + " seconds");
+            long started = System.nanoTime();
+            List<Long> partitions = event.partitions().stream().map(Integer::longValue).collect(Collectors.toList());
+            List<PendingDeadline> deadlines = shardRouter.onEveryShardPrimary(() -> transactionRepository.findDeadlinesInPartitions(
+                TransactionStatus.PENDING, clusterLeaseManager.getPartitionCount(), partitions));
             
-            // Wait for exactly 25 seconds
-            Thread.sleep(AUTO_COMPLETION_SECONDS * 1000);
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> overdue = new ArrayList<>();
+            for (PendingDeadline deadline : deadlines) {
+                if (deadline.completionDueAt().isAfter(now)) {
+                    scheduleAutoCompletion(deadline.id(), deadline.completionDueAt());
+                } else {
+                    overdue.add(deadline.id());
+                }
+            }
+            int completed = completeDueTransactions(overdue);
             
-            // Complete the transaction automatically
-            completePendingTransaction(transactionId);
+            if (!deadlines.isEmpty()) {
+                System.out.println("Recovered " + deadlines.size() + " pending deadline(s) in partitions " + event.partitions() +
+                    ": completed " + completed + " overdue, re-armed " + (deadlines.size() - overdue.size()) +
+                    " in " + (System.nanoTime() - started) / 1_000_000 + " ms");
+            }
+        } catch (Exception e) {
+            System.err.println("Error recovering deadlines for partitions " + event.partitions() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Auto-complete transactions whose deadline has passed, one IN-query and one JDBC batch per chunk
+     * instead of a round trip per row
+     */
+    private int completeDueTransactions(List<Long> transactionIds) {
+        int completed = 0;
+        for (Map.Entry<Integer, List<Long>> shard : shardRouter.partitionByShard(transactionIds).entrySet()) {
+            List<Long> ids = shard.getValue();
+            for (int from = 0; from < ids.size(); from += RECOVERY_BATCH_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + RECOVERY_BATCH_SIZE, ids.size()));
+                AutoComplete autoComplete = new AutoComplete();
+                autoComplete.begin();
+                long dbStarted = System.nanoTime();
+                List<Transaction> due = shardRouter.onShard(shard.getKey(), () -> transactionTemplate.execute(status -> {
+                    // Row locks keep a creating node's timer from completing the same rows concurrently
+                    List<Transaction> pending = transactionRepository.lockByIdInAndStatus(chunk, TransactionStatus.PENDING);
+                    if (!pending.isEmpty()) {
+                        autoComplete.lateness = latenessNanos(pending.get(0));
+                    }
+                    pending.forEach(this::applyAutoCompletion);
+                    List<Transaction> saved = transactionRepository.saveAll(pending);
+                    statsService.recordCompleted(saved);
+                    return saved;
+                }));
+                // The whole chunk is one DB transaction
+                autoComplete.dbTime = System.nanoTime() - dbStarted;
+                if (due != null && !due.isEmpty()) {
+                    due.forEach(transaction -> readYourWritesTracker.recordWrite(transaction.getCreatedByUserId()));
+                    completed += due.size();
+                    autoComplete.batchSize = due.size();
+                    commit(autoComplete, due.get(0));
+                }
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Drain due STK retries: claim a batch in one DB round trip, then push on the worker pool
+     */
+    @Scheduled(fixedDelayString = "${app.stk-retry.poll-interval-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void drainStkRetryQueue() {
+        try {
+            for (StkRetryTask task : stkRetryQueue.claimDue()) {
+                stkRetryQueue.submit(() -> retryStkPush(task));
+            }
+        } catch (Exception e) {
+            System.err.println("Error in drainStkRetryQueue: " + e.getMessage());
+        }
+    }
+
+    private void retryStkPush(StkRetryTask task) {
+        Long transactionId = task.getTransactionId();
+        try {
+            Transaction transaction = shardRouter.onShardOf(transactionId,
+                () -> transactionRepository.findById(transactionId)).orElse(null);
+            if (transaction == null || transaction.getStatus() != TransactionStatus.PENDING) {
+                // Cancelled (or otherwise settled) while waiting - nothing left to push
+                stkRetryQueue.markDone(task);
+                return;
+            }
             
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Auto-completion interrupted for transaction: " + transactionId);
-            // If interrupted, still complete the transaction
-            completePendingTransaction(transactionId);
+            StkPush stkPush = new StkPush();
+            stkPush.attempt = task.getAttempts() + 2;
+            stkPush.begin();
+            String requestId;
+            try {
+                requestId = mpesaGateway.initiateStkPush(
+                    transaction.getMpesaPhoneNumber(), transaction.getAmount(), transaction.getDescription());
+            } catch (MpesaUnavailableException e) {
+                // Breaker open or bulkhead full: the push was never sent, so it doesn't use up an attempt
+                stkPush.transactionId = transactionId;
+                stkPush.status = e.getClass().getSimpleName();
+                stkPush.commit();
+                stkRetryQueue.reschedule(task, e.getMessage(), TimeUnit.SECONDS.toMillis(e.getRetryAfterSeconds()));
+                return;
+            } catch (Exception e) {
+                stkPush.transactionId = transactionId;
+                stkPush.status = e.getClass().getSimpleName();
+                stkPush.commit();
+                if (stkRetryQueue.markFailed(task, e.getMessage())) {
+                    transaction.setStatus(TransactionStatus.FAILED);
+                    transaction.setMpesaCallbackResult("DEAD_LETTER: STK push failed after " +
+                        stkRetryQueue.getMaxAttempts() + " retries: " + e.getMessage());
+                    saveOnShard(transaction);
+                    readYourWritesTracker.recordWrite(transaction.getCreatedByUserId());
+                    System.err.println("STK push for transaction " + transactionId + " dead-lettered: " + e.getMessage());
+                }
+                return;
+            }
+            stkPush.succeeded = true;
+            commit(stkPush, transaction);
+            // Done as soon as M-Pesa accepted it, so a later failure can't lead to a second prompt
+            stkRetryQueue.markDone(task);
+            recordStkPushResult(transaction, requestId);
+            readYourWritesTracker.recordWrite(transaction.getCreatedByUserId());
+            System.out.println("✓ STK push for transaction " + transactionId + " succeeded on attempt " + (task.getAttempts() + 1));
+        } catch (Exception e) {
+            System.err.println("ERROR: STK retry for transaction " + transactionId + " failed: " + e.getMessage());
         }
     }
 
     /**
      * Complete a pending transaction automatically (simulate successful payment)
-     * This is the guarantee that transactions won't stay pending
+     * This is the guarantee that transactions won't stay pending.
+     * Runs on whichever node armed the timer - the creating node, or the partition owner after a
+     * takeover - and the conditional update lets exactly one of them settle the transaction.
      */
     private void completePendingTransaction(Long transactionId) {
         try {
-            Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+            AutoComplete autoComplete = new AutoComplete();
+            autoComplete.begin();
+            long dbStarted = System.nanoTime();
+            Transaction transaction = completeIfPending(transactionId, mpesaMockService.generateMockReceiptNumber(),
+                AUTO_COMPLETED_RESULT);
+            autoComplete.dbTime = System.nanoTime() - dbStarted;
             
-            // Only complete if still pending (might have been cancelled)
-            if (transaction.getStatus() == TransactionStatus.PENDING) {
-                transaction.setStatus(TransactionStatus.COMPLETED);
-                transaction.setMpesaReceiptNumber(mpesaMockService.generateMockReceiptNumber());
-                transaction.setMpesaCallbackResult("AUTO_COMPLETED: Transaction automatically completed after " + 
-                    AUTO_COMPLETION_SECONDS + " seconds");
-                
-                transactionRepository.save(transaction);
+            // null: cancelled, or already completed by another node's timer
+            if (transaction != null) {
+                autoComplete.batchSize = 1;
+                autoComplete.lateness = latenessNanos(transaction);
+                readYourWritesTracker.recordWrite(transaction.getCreatedByUserId());
+                commit(autoComplete, transaction);
                 
                 System.out.println("✓ Transaction " + transactionId + " automatically COMPLETED after " + 
                     AUTO_COMPLETION_SECONDS + " seconds");
@@ -170,16 +506,52 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
     
+    /**
+     * Complete one transaction if it is still PENDING, together with its stats delta, as one DB transaction
+     * @return the completed transaction, or null if it was no longer pending
+     */
+    private Transaction completeIfPending(Long transactionId, String receiptNumber, String callbackResult) {
+        return shardRouter.onShardOf(transactionId, () -> transactionTemplate.execute(status -> {
+            if (transactionRepository.completeIfPending(transactionId, receiptNumber, callbackResult,
+                    LocalDateTime.now(), TransactionStatus.PENDING, TransactionStatus.COMPLETED) == 0) {
+                return null;
+            }
+            Transaction completed = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+            statsService.recordCompleted(List.of(completed));
+            return completed;
+        }));
+    }
+    
+    private static long latenessNanos(Transaction transaction) {
+        LocalDateTime dueAt = transaction.getCompletionDueAt();
+        return dueAt != null ? Math.max(0, java.time.Duration.between(dueAt, LocalDateTime.now()).toNanos()) : 0;
+    }
+    
+    private void applyAutoCompletion(Transaction transaction) {
+        transaction.setStatus(TransactionStatus.COMPLETED);
+        transaction.setMpesaReceiptNumber(mpesaMockService.generateMockReceiptNumber());
+        transaction.setMpesaCallbackResult(AUTO_COMPLETED_RESULT);
+    }
+    
     /**
      * EMERGENCY: Force complete transaction if auto-completion fails
      */
     private void forceCompleteTransaction(Long transactionId) {
+        String callbackResult = "FORCE_COMPLETED: Emergency completion after auto-completion failure";
         try {
-            Transaction transaction = transactionRepository.findById(transactionId).orElse(null);
-            if (transaction != null && transaction.getStatus() == TransactionStatus.PENDING) {
-                transaction.setStatus(TransactionStatus.COMPLETED);
-                transaction.setMpesaCallbackResult("FORCE_COMPLETED: Emergency completion after auto-completion failure");
-                transactionRepository.save(transaction);
+            boolean completed;
+            try {
+                completed = completeIfPending(transactionId, null, callbackResult) != null;
+            } catch (Exception e) {
+                // Completing matters more than the dashboard stats
+                System.err.println("WARNING: Force-completing transaction " + transactionId + " without stats: " + e.getMessage());
+                Integer updated = shardRouter.onShardOf(transactionId, () -> transactionTemplate.execute(status ->
+                    transactionRepository.completeIfPending(transactionId, null, callbackResult, LocalDateTime.now(),
+                        TransactionStatus.PENDING, TransactionStatus.COMPLETED)));
+                completed = updated != null && updated == 1;
+            }
+            if (completed) {
                 System.out.println("✓ EMERGENCY: Transaction " + transactionId + " force-completed");
             }
         } catch (Exception e) {
@@ -192,26 +564,64 @@ public class TransactionServiceImpl implements TransactionService {
      * This is our final guarantee that no transaction stays in PENDING state
      */
     @Scheduled(fixedRate = 30000) // Run every 30 seconds
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupStuckTransactions() {
         try {
-            List<Transaction> pendingTransactions = transactionRepository.findByStatus(TransactionStatus.PENDING);
+            // Only sweep the partitions this node holds a lease on
+            List<Long> partitions = clusterLeaseManager.getOwnedPartitions().stream()
+                .map(Integer::longValue).collect(Collectors.toList());
+            if (partitions.isEmpty()) {
+                return;
+            }
+            CleanupSweep sweep = new CleanupSweep();
+            sweep.begin();
+            long dbStarted = System.nanoTime();
+            List<Transaction> pendingTransactions = shardRouter.onEveryShardPrimary(() -> transactionRepository.findByStatusInPartitions(
+                TransactionStatus.PENDING, clusterLeaseManager.getPartitionCount(), partitions));
+            sweep.dbTime = System.nanoTime() - dbStarted;
+            sweep.pending = pendingTransactions.size();
             
             if (!pendingTransactions.isEmpty()) {
                 System.out.println("Cleaning up " + pendingTransactions.size() + " potentially stuck transactions...");
                 
+                // Transactions waiting on an STK retry aren't stuck - the retry queue owns them
+                Set<Long> retrying = stkRetryQueue.findActive(
+                    pendingTransactions.stream().map(Transaction::getId).collect(Collectors.toList()));
+                
+                List<Long> overdue = new ArrayList<>();
                 for (Transaction transaction : pendingTransactions) {
+                    if (retrying.contains(transaction.getId())) {
+                        continue;
+                    }
+                    
                     long secondsElapsed = java.time.Duration.between(transaction.getCreatedAt(), LocalDateTime.now()).getSeconds();
                     
-                    // If transaction is older than 30 seconds, force complete it
+                    // Older than 30 seconds: apply the outcome it was due rather than a blanket completion
                     if (secondsElapsed > 30) {
-                        System.out.println("Force completing stuck transaction: " + transaction.getId() + " (" + secondsElapsed + " seconds old)");
-                        transaction.setStatus(TransactionStatus.COMPLETED);
-                        transaction.setMpesaReceiptNumber("STUCK_" + mpesaMockService.generateMockReceiptNumber());
-                        transaction.setMpesaCallbackResult("STUCK_CLEANUP: Auto-completed by cleanup job after " + secondsElapsed + " seconds");
-                        transactionRepository.save(transaction);
+                        if (transaction.getCompletionDueAt() != null) {
+                            // Pushed to M-Pesa but its timer was lost
+                            overdue.add(transaction.getId());
+                        } else {
+                            // Never reached M-Pesa (process died mid-initiation) - push again instead of inventing a receipt
+                            System.out.println("Re-queueing STK push for interrupted transaction: " + transaction.getId() + " (" + secondsElapsed + " seconds old)");
+                            try {
+                                stkRetryQueue.enqueue(transaction.getId(), "Initiation interrupted");
+                                sweep.requeued++;
+                            } catch (Exception e) {
+                                System.err.println("Could not re-queue transaction " + transaction.getId() + ": " + e.getMessage());
+                            }
+                        }
                     }
                 }
+                
+                int completed = completeDueTransactions(overdue);
+                sweep.completed = completed;
+                if (completed > 0) {
+                    System.out.println("Completed " + completed + " overdue transaction(s) whose timers were lost");
+                }
             }
+            // Completions show up as their own AutoComplete events; dbTime here is the sweep's query
+            sweep.commit();
             
         } catch (Exception e) {
             System.err.println("Error in cleanupStuckTransactions: " + e.getMessage());
@@ -220,9 +630,11 @@ public class TransactionServiceImpl implements TransactionService {
 
     // KEEP ALL OTHER METHODS EXACTLY AS THEY WERE BEFORE
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionResponse createCorrectionTransaction(Long originalTransactionId, TransactionRequest request, String userId) {
         // Verify original transaction exists and is completed
-        Transaction originalTransaction = transactionRepository.findById(originalTransactionId)
+        Transaction originalTransaction = shardRouter.onShardOf(originalTransactionId,
+            () -> transactionRepository.findById(originalTransactionId))
             .orElseThrow(() -> new TransactionNotFoundException(originalTransactionId));
         
         if (originalTransaction.getStatus() != TransactionStatus.COMPLETED) {
@@ -231,6 +643,12 @@ public class TransactionServiceImpl implements TransactionService {
                 originalTransaction.getStatus());
         }
         
+        // A correction stays in its original's group (and therefore on its shard)
+        if (!originalTransaction.getGroupId().equals(request.getGroupId())) {
+            throw new InvalidTransactionOperationException(
+                "Correction must belong to the original transaction's group: " + originalTransaction.getGroupId());
+        }
+        
         // Set the original transaction ID in the request
         request.setOriginalTransactionId(originalTransactionId);
         
@@ -241,40 +659,127 @@ public class TransactionServiceImpl implements TransactionService {
         return initiateTransaction(request, userId);
     }
 
+    /**
+     * A user can belong to groups on any shard - each shard is read in its own transaction
+     */
     @Override
-    public List<TransactionResponse> getUserTransactions(String userId) {
-        List<Transaction> transactions = transactionRepository.findByCreatedByUserId(userId);
-        return transactions.stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TransactionSummary> getUserTransactions(String userId) {
+        return shardRouter.onEveryShard(() -> transactionRepository.findSummariesByCreatedByUserId(userId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TransactionResponse getTransactionById(Long transactionId, String userId) {
-        Transaction transaction = transactionRepository.findByIdAndUserId(transactionId, userId)
+        Transaction transaction = shardRouter.onShardOf(transactionId, () -> transactionRepository.findByIdAndUserId(transactionId, userId)
+            // Not in the hot table - it may have been archived (segments live on the same shard)
+            .or(() -> transactionArchiver.findArchived(transactionId)
+                .filter(archived -> archived.getCreatedByUserId().equals(userId))))
             .orElseThrow(() -> new TransactionNotFoundException(transactionId));
         return convertToResponse(transaction);
     }
 
     @Override
-    public List<TransactionResponse> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAllByOrderByCreatedAtDesc();
-        return transactions.stream()
+    @Transactional(readOnly = true)
+    public List<TransactionResponse> getArchivedTransactions(String groupId, String month) {
+        // Segments hold every group on the shard for that month
+        return shardRouter.onGroupShard(groupId, () -> transactionArchiver.findArchivedByMonth(month)).stream()
+            .filter(transaction -> groupId.equals(transaction.getGroupId()))
             .map(this::convertToResponse)
             .collect(Collectors.toList());
     }
 
     @Override
-    public List<TransactionResponse> getTransactionsByStatus(TransactionStatus status) {
-        List<Transaction> transactions = transactionRepository.findByStatusOrderByCreatedAtDesc(status);
-        return transactions.stream()
-            .map(this::convertToResponse)
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getAllTransactions(String groupId) {
+        return shardRouter.onGroupShard(groupId, () -> transactionRepository.findSummariesByGroupId(groupId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionSummary> getTransactionsByStatus(String groupId, TransactionStatus status) {
+        return shardRouter.onGroupShard(groupId, () -> transactionRepository.findSummariesByGroupIdAndStatus(groupId, status));
+    }
+
+    /**
+     * Matching IDs come from the search index; rows are loaded per shard, newest first.
+     * Archived transactions are no longer in the table and drop out of the results.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TransactionSummary> searchTransactions(String query, String userId, String groupId, int limit) {
+        long[] matches = searchIndex.search(query, userId, groupId);
+        List<TransactionSummary> results = new ArrayList<>();
+        shardRouter.partitionByShard(Arrays.stream(matches).boxed().toList()).forEach((shard, ids) -> {
+            // IDs increase within a shard, so its highest IDs are its newest transactions
+            List<Long> newest = ids.subList(Math.max(0, ids.size() - limit), ids.size());
+            results.addAll(shardRouter.readOnShard(shard, () -> transactionRepository.findSummariesByIdIn(newest)));
+        });
+        return results.stream()
+            .sorted(Comparator.comparing(TransactionSummary::createdAt).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CorrectionChainResponse getCorrectionChain(Long transactionId, String groupId) {
+        return getCorrectionChains(List.of(transactionId), groupId).get(0);
+    }
+
+    /**
+     * Resolves correction trees level by level: one IN query per depth of the
+     * deepest tree (per shard), regardless of how many roots or corrections are involved.
+     * A tree never spans shards, since corrections stay in their original's group.
+     * Roots outside the caller's group are reported as not found.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CorrectionChainResponse> getCorrectionChains(List<Long> transactionIds, String groupId) {
+        Map<Long, CorrectionChainResponse> resolved = new LinkedHashMap<>();
+        Set<Long> toLoad = new LinkedHashSet<>();
+        for (Long id : transactionIds) {
+            CorrectionChainResponse cached = cachedChain(id, groupId);
+            if (cached != null) {
+                resolved.put(id, cached);
+            } else {
+                toLoad.add(id);
+            }
+        }
+        
+        if (!toLoad.isEmpty()) {
+            Map<Long, Transaction> roots = new HashMap<>();
+            Map<Long, List<Transaction>> correctionsByParent = new HashMap<>();
+            Set<Long> archivedIds = new HashSet<>();
+            shardRouter.partitionByShard(toLoad).forEach((shard, ids) -> shardRouter.readOnShard(shard, () -> {
+                loadCorrectionForest(ids, roots, correctionsByParent, archivedIds);
+                return null;
+            }));
+            for (Long id : toLoad) {
+                Transaction root = roots.get(id);
+                if (root == null || !root.getGroupId().equals(groupId)) {
+                    throw new TransactionNotFoundException(id);
+                }
+            }
+            
+            for (Long id : toLoad) {
+                CorrectionChainResponse chain = buildChain(roots.get(id), correctionsByParent);
+                // Trees with archived members are rare and not cached (the staleness check counts hot rows only)
+                if (isTerminalChain(chain) && !containsAny(chain, archivedIds)) {
+                    cacheChain(id, chain);
+                }
+                resolved.put(id, chain);
+            }
+        }
+        
+        return transactionIds.stream()
+            .map(resolved::get)
             .collect(Collectors.toList());
     }
 
     @Override
     public TransactionResponse simulateMpesaCallback(Long transactionId, boolean success, String receiptNumber) {
-        Transaction transaction = transactionRepository.findById(transactionId)
+        Transaction transaction = shardRouter.onShardOf(transactionId, () -> transactionRepository.findById(transactionId))
             .orElseThrow(() -> new TransactionNotFoundException(transactionId));
         
         if (transaction.getStatus() != TransactionStatus.PENDING) {
@@ -291,21 +796,146 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setMpesaCallbackResult("SIMULATED_FAILURE: Payment failed");
         }
         
-        Transaction updatedTransaction = transactionRepository.save(transaction);
+        Transaction updatedTransaction = success ? saveCompleted(transaction) : saveOnShard(transaction);
+        readYourWritesTracker.recordWrite(transaction.getCreatedByUserId());
+        searchIndex.index(updatedTransaction);
         return convertToResponse(updatedTransaction);
     }
 
     // Private helper methods
-    private void validateTransactionRequest(TransactionRequest request) {
-        if (request.getAmount() <= 0) {
-            throw new InvalidTransactionOperationException("Amount must be greater than 0");
+    /**
+     * Members no longer in the hot table are read from the archive. A correction is newer than its
+     * original, so it is archived no earlier - archived corrections can only hang below archived members.
+     */
+    private void loadCorrectionForest(Collection<Long> rootIds, Map<Long, Transaction> roots,
+                                      Map<Long, List<Transaction>> correctionsByParent, Set<Long> archivedIds) {
+        List<Transaction> found = new ArrayList<>();
+        transactionRepository.findAllById(rootIds).forEach(t -> {
+            roots.put(t.getId(), t);
+            found.add(t);
+        });
+        for (Long id : rootIds) {
+            if (!roots.containsKey(id)) {
+                transactionArchiver.findArchived(id).ifPresent(t -> {
+                    roots.put(id, t);
+                    found.add(t);
+                    archivedIds.add(id);
+                });
+            }
         }
         
-        if (request.getMpesaPhoneNumber() == null || !request.getMpesaPhoneNumber().matches("254\\d{9}")) {
-            throw new InvalidTransactionOperationException("Valid M-Pesa phone number required (format: 254XXXXXXXXX)");
+        // Load the whole forest breadth-first, grouping corrections by parent
+        Set<Long> seen = found.stream().map(Transaction::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+        List<Transaction> frontier = found;
+        while (!frontier.isEmpty()) {
+            List<Transaction> next = new ArrayList<>();
+            List<Long> frontierIds = frontier.stream().map(Transaction::getId).collect(Collectors.toList());
+            for (Transaction correction : transactionRepository.findByOriginalTransactionIdIn(frontierIds)) {
+                addCorrection(correction, seen, correctionsByParent, next);
+            }
+            List<Transaction> archivedParents = frontier.stream()
+                .filter(t -> archivedIds.contains(t.getId()))
+                .collect(Collectors.toList());
+            if (!archivedParents.isEmpty()) {
+                for (Transaction correction : transactionArchiver.findArchivedCorrections(archivedParents)) {
+                    if (addCorrection(correction, seen, correctionsByParent, next)) {
+                        archivedIds.add(correction.getId());
+                    }
+                }
+            }
+            frontier = next;
+        }
+    }
+
+    private static boolean addCorrection(Transaction correction, Set<Long> seen,
+                                         Map<Long, List<Transaction>> correctionsByParent, List<Transaction> next) {
+        if (!seen.add(correction.getId())) {
+            return false;
         }
+        correctionsByParent.computeIfAbsent(correction.getOriginalTransactionId(), k -> new ArrayList<>())
+            .add(correction);
+        next.add(correction);
+        return true;
     }
 
+    private CorrectionChainResponse buildChain(Transaction transaction, Map<Long, List<Transaction>> correctionsByParent) {
+        CorrectionChainResponse node = new CorrectionChainResponse(convertToResponse(transaction));
+        double netAmount = transaction.getStatus() == TransactionStatus.COMPLETED ? transaction.getAmount() : 0.0;
+        
+        for (Transaction correction : correctionsByParent.getOrDefault(transaction.getId(), List.of())) {
+            CorrectionChainResponse child = buildChain(correction, correctionsByParent);
+            netAmount += child.getNetAmount();
+            node.getCorrections().add(child);
+        }
+        
+        node.setNetAmount(netAmount);
+        return node;
+    }
+
+    private boolean isTerminalChain(CorrectionChainResponse chain) {
+        if (chain.getTransaction().getStatus() == TransactionStatus.PENDING) {
+            return false;
+        }
+        return chain.getCorrections().stream().allMatch(this::isTerminalChain);
+    }
+
+    private boolean containsTransaction(CorrectionChainResponse chain, Long transactionId) {
+        if (chain.getTransaction().getId().equals(transactionId)) {
+            return true;
+        }
+        return chain.getCorrections().stream().anyMatch(child -> containsTransaction(child, transactionId));
+    }
+
+    private boolean containsAny(CorrectionChainResponse chain, Set<Long> transactionIds) {
+        if (transactionIds.contains(chain.getTransaction().getId())) {
+            return true;
+        }
+        return chain.getCorrections().stream().anyMatch(child -> containsAny(child, transactionIds));
+    }
+
+    private void evictCorrectionChains(Long transactionId) {
+        terminalChainCache.values().removeIf(cached -> containsTransaction(cached.chain(), transactionId));
+    }
+
+    /**
+     * Cached tree for this root if it is in the caller's group and still current. Another instance may
+     * have added a correction (its eviction only reaches its own cache), so the tree is served only
+     * while the rows pointing into it are exactly its own corrections - one indexed count per hit.
+     */
+    private CorrectionChainResponse cachedChain(Long rootId, String groupId) {
+        CachedChain cached = terminalChainCache.get(rootId);
+        if (cached == null || !groupId.equals(cached.chain().getTransaction().getGroupId())) {
+            return null;
+        }
+        long corrections = shardRouter.readOnShard(shardRouter.shardOf(rootId),
+            () -> transactionRepository.countByOriginalTransactionIdIn(cached.memberIds()));
+        if (corrections != cached.memberIds().size() - 1) {
+            terminalChainCache.remove(rootId);
+            return null;
+        }
+        return cached.chain();
+    }
+
+    private void cacheChain(Long rootId, CorrectionChainResponse chain) {
+        if (terminalChainCache.size() >= MAX_CACHED_CHAINS) {
+            // Bounded: drop an arbitrary entry, it will simply be rebuilt on its next read
+            Iterator<Long> it = terminalChainCache.keySet().iterator();
+            if (it.hasNext()) {
+                terminalChainCache.remove(it.next());
+            }
+        }
+        List<Long> memberIds = new ArrayList<>();
+        collectMemberIds(chain, memberIds);
+        terminalChainCache.put(rootId, new CachedChain(chain, memberIds));
+    }
+
+    private static void collectMemberIds(CorrectionChainResponse chain, List<Long> memberIds) {
+        memberIds.add(chain.getTransaction().getId());
+        chain.getCorrections().forEach(child -> collectMemberIds(child, memberIds));
+    }
+
+    private record CachedChain(CorrectionChainResponse chain, List<Long> memberIds) {}
+
     private TransactionResponse convertToResponse(Transaction transaction) {
         TransactionResponse response = new TransactionResponse();
         response.setId(transaction.getId());
@@ -319,6 +949,7 @@ public class TransactionServiceImpl implements TransactionService {
         response.setCreatedAt(transaction.getCreatedAt());
         response.setCompletedAt(transaction.getCompletedAt());
         response.setCreatedByUserId(transaction.getCreatedByUserId());
+        response.setGroupId(transaction.getGroupId());
         response.setOriginalTransactionId(transaction.getOriginalTransactionId());
         return response;
     }
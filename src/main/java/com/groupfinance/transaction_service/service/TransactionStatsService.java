@@ -0,0 +1,210 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.dto.StatsBucketKey;
+import com.groupfinance.transaction_service.dto.TransactionStats;
+import com.groupfinance.transaction_service.exception.InvalidTransactionOperationException;
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatsSketch;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.repository.TransactionStatsSketchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard statistics kept as mergeable sketches per (group, createdAt day, category) bucket, so
+ * a range query reads and merges a few rows per day instead of scanning the transactions.
+ *
+ * Transactions are folded in by the same DB transaction that marks them COMPLETED, as an appended
+ * delta row - no read-modify-write on a hot bucket row, and nothing is lost or counted twice.
+ * Compaction later merges each bucket's deltas into one row; queries merge whatever is there.
+ * Buckets live on the group's shard, next to its transactions, and outlive archiving.
+ */
+@Service
+public class TransactionStatsService {
+
+    private final TransactionStatsSketchRepository sketchRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRangeDays;
+    private final int compactBatchSize;
+
+    public TransactionStatsService(TransactionStatsSketchRepository sketchRepository,
+                                   ShardRouter shardRouter,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.stats.max-range-days:366}") int maxRangeDays,
+                                   @Value("${app.stats.compact-batch-size:500}") int compactBatchSize) {
+        this.sketchRepository = sketchRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.maxRangeDays = maxRangeDays;
+        this.compactBatchSize = compactBatchSize;
+    }
+
+    /**
+     * Append the newly COMPLETED transactions as one delta row per bucket. Must run inside the
+     * DB transaction that completes them, on their shard.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCompleted(Collection<Transaction> transactions) {
+        Map<StatsBucketKey, Accumulator> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (transaction.getStatus() != TransactionStatus.COMPLETED) {
+                continue;
+            }
+            StatsBucketKey key = new StatsBucketKey(transaction.getGroupId(),
+                transaction.getCreatedAt().toLocalDate(), transaction.getCategory());
+            deltas.computeIfAbsent(key, k -> new Accumulator()).add(transaction);
+        }
+        deltas.forEach((key, delta) -> sketchRepository.save(delta.toSketch(key)));
+    }
+
+    /**
+     * Merge a group's buckets for [from, to]: overall, per category and per day
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionStats getStats(String groupId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || from.plusDays(maxRangeDays).isBefore(to)) {
+            throw new InvalidTransactionOperationException("Stats range must run forwards and span at most " + maxRangeDays + " days");
+        }
+        List<TransactionStatsSketch> rows = shardRouter.readOnShard(shardRouter.shardForGroup(groupId),
+            () -> sketchRepository.findByGroupIdAndDayBetween(groupId, from, to));
+
+        Accumulator overall = new Accumulator();
+        Map<TransactionCategory, Accumulator> byCategory = new EnumMap<>(TransactionCategory.class);
+        Map<LocalDate, Accumulator> byDay = new TreeMap<>();
+        for (TransactionStatsSketch row : rows) {
+            Accumulator sketch = Accumulator.of(row);
+            overall.merge(sketch);
+            byCategory.computeIfAbsent(row.getCategory(), k -> new Accumulator()).merge(sketch);
+            byDay.computeIfAbsent(row.getDay(), k -> new Accumulator()).merge(sketch);
+        }
+
+        Map<TransactionCategory, TransactionStats.Summary> categorySummaries = new EnumMap<>(TransactionCategory.class);
+        byCategory.forEach((category, sketch) -> categorySummaries.put(category, sketch.summarize()));
+        Map<LocalDate, TransactionStats.Summary> daySummaries = new LinkedHashMap<>();
+        byDay.forEach((day, sketch) -> daySummaries.put(day, sketch.summarize()));
+        return new TransactionStats(from, to, overall.summarize(), categorySummaries, daySummaries);
+    }
+
+    /**
+     * Fold each bucket's delta rows into one, so queries read about one row per bucket
+     */
+    @Scheduled(fixedDelayString = "${app.stats.compact-interval-ms:60000}", initialDelayString = "${app.stats.compact-interval-ms:60000}")
+    public void compact() {
+        int merged = 0;
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                List<StatsBucketKey> fragmented = shardRouter.readOnShard(shard,
+                    () -> sketchRepository.findFragmentedBuckets(PageRequest.of(0, compactBatchSize)));
+                for (StatsBucketKey key : fragmented) {
+                    Integer rows = shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> {
+                        int compacted = compactBucket(key);
+                        if (compacted == 0) {
+                            status.setRollbackOnly();
+                        }
+                        return compacted;
+                    }));
+                    merged += rows != null ? rows : 0;
+                }
+            }
+
+            if (merged > 0) {
+                System.out.println("Compacted " + merged + " stats sketch rows");
+            }
+        } catch (Exception e) {
+            System.err.println("Error in compact stats sketches: " + e.getMessage());
+        }
+    }
+
+    // Returns the number of rows folded, or 0 if another node compacted the bucket first
+    private int compactBucket(StatsBucketKey key) {
+        List<TransactionStatsSketch> rows = sketchRepository.findByGroupIdAndDayAndCategory(key.groupId(), key.day(), key.category());
+        if (rows.size() < 2) {
+            return 0;
+        }
+        Accumulator merged = new Accumulator();
+        rows.forEach(row -> merged.merge(Accumulator.of(row)));
+
+        // Deleting locks the rows; a concurrent compaction of the same bucket deletes fewer and rolls back
+        List<Long> ids = rows.stream().map(TransactionStatsSketch::getId).collect(Collectors.toList());
+        if (sketchRepository.deleteByIdIn(ids) != ids.size()) {
+            return 0;
+        }
+        sketchRepository.save(merged.toSketch(key));
+        return rows.size();
+    }
+
+    private static final class Accumulator {
+        private long count;
+        private double total;
+        private final HyperLogLog payers;
+        private final HyperLogLog phoneNumbers;
+        private final AmountQuantileSketch amounts;
+
+        Accumulator() {
+            this(new HyperLogLog(), new HyperLogLog(), new AmountQuantileSketch());
+        }
+
+        private Accumulator(HyperLogLog payers, HyperLogLog phoneNumbers, AmountQuantileSketch amounts) {
+            this.payers = payers;
+            this.phoneNumbers = phoneNumbers;
+            this.amounts = amounts;
+        }
+
+        static Accumulator of(TransactionStatsSketch row) {
+            Accumulator sketch = new Accumulator(HyperLogLog.fromBytes(row.getPayers()),
+                HyperLogLog.fromBytes(row.getPhoneNumbers()), AmountQuantileSketch.fromBytes(row.getAmounts()));
+            sketch.count = row.getTransactionCount();
+            sketch.total = row.getTotalAmount();
+            return sketch;
+        }
+
+        void add(Transaction transaction) {
+            count++;
+            total += transaction.getAmount();
+            payers.add(transaction.getCreatedByUserId());
+            phoneNumbers.add(transaction.getMpesaPhoneNumber());
+            amounts.add(transaction.getAmount());
+        }
+
+        void merge(Accumulator other) {
+            count += other.count;
+            total += other.total;
+            payers.merge(other.payers);
+            phoneNumbers.merge(other.phoneNumbers);
+            amounts.merge(other.amounts);
+        }
+
+        TransactionStatsSketch toSketch(StatsBucketKey key) {
+            TransactionStatsSketch sketch = new TransactionStatsSketch(key.groupId(), key.day(), key.category());
+            sketch.setTransactionCount(count);
+            sketch.setTotalAmount(total);
+            sketch.setPayers(payers.toBytes());
+            sketch.setPhoneNumbers(phoneNumbers.toBytes());
+            sketch.setAmounts(amounts.toBytes());
+            return sketch;
+        }
+
+        TransactionStats.Summary summarize() {
+            // Never report more distinct payers than transactions (possible within the sketch error)
+            return new TransactionStats.Summary(count, total,
+                Math.min(count, payers.estimate()), Math.min(count, phoneNumbers.estimate()),
+                amounts.quantile(0.50), amounts.quantile(0.90), amounts.quantile(0.99));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.groupfinance.transaction_service.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A finite amount greater than 0. Null is left to @NotNull.
+ */
+@Documented
+@Constraint(validatedBy = MpesaAmountValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MpesaAmount {
+
+    String message() default "Amount must be positive";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,19 @@
+package com.groupfinance.transaction_service.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Primitive comparison on the unboxed value; unlike @Positive it also rejects NaN and infinity
+ */
+public class MpesaAmountValidator implements ConstraintValidator<MpesaAmount, Double> {
+
+    @Override
+    public boolean isValid(Double value, ConstraintValidatorContext context) {
+        return value == null || isValid(value.doubleValue());
+    }
+
+    public static boolean isValid(double amount) {
+        return amount > 0 && amount < Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,26 @@
+package com.groupfinance.transaction_service.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Kenyan MSISDN in M-Pesa format: 254 followed by 9 digits. Null/blank is left to @NotBlank.
+ */
+@Documented
+@Constraint(validatedBy = MpesaPhoneNumberValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MpesaPhoneNumber {
+
+    String message() default "Valid M-Pesa phone number required (format: 254XXXXXXXXX)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
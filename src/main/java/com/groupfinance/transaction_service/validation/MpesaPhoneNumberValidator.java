@@ -0,0 +1,33 @@
+package com.groupfinance.transaction_service.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Hand-rolled check for 254XXXXXXXXX: a length test and a char loop, no regex and no allocation
+ */
+public class MpesaPhoneNumberValidator implements ConstraintValidator<MpesaPhoneNumber, CharSequence> {
+
+    private static final int LENGTH = 12;
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        if (value == null || value.isEmpty()) {
+            return true;
+        }
+        return isValid(value);
+    }
+
+    public static boolean isValid(CharSequence value) {
+        if (value.length() != LENGTH || value.charAt(0) != '2' || value.charAt(1) != '5' || value.charAt(2) != '4') {
+            return false;
+        }
+        for (int i = 3; i < LENGTH; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
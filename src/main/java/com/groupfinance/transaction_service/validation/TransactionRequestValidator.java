@@ -0,0 +1,54 @@
+package com.groupfinance.transaction_service.validation;
+
+import com.groupfinance.transaction_service.dto.TransactionRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/**
+ * The single validation stage for TransactionRequest bodies.
+ *
+ * Valid requests (nearly all of them) are accepted by a hand-rolled check of the same constraints
+ * that are declared on TransactionRequest - primitive comparisons and char loops, no allocation.
+ * Only when that check fails does Bean Validation run, to build the full, message-interpolated
+ * error report. Invariant: the fast check must never accept what the annotations reject.
+ */
+@Component
+public class TransactionRequestValidator implements Validator {
+
+    private final SpringValidatorAdapter beanValidation;
+
+    public TransactionRequestValidator(jakarta.validation.Validator beanValidator) {
+        this.beanValidation = new SpringValidatorAdapter(beanValidator);
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return TransactionRequest.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (!isValid((TransactionRequest) target)) {
+            beanValidation.validate(target, errors);
+        }
+    }
+
+    public static boolean isValid(TransactionRequest request) {
+        Double amount = request.getAmount();
+        String phone = request.getMpesaPhoneNumber();
+        String description = request.getDescription();
+        String groupId = request.getGroupId();
+        return amount != null && MpesaAmountValidator.isValid(amount.doubleValue())
+            && phone != null && MpesaPhoneNumberValidator.isValid(phone)
+            && isNotBlank(description)
+            && request.getCategory() != null
+            && isNotBlank(groupId) && groupId.length() <= 64;
+    }
+
+    // @NotBlank's definition: trim() strips every char <= ' ', so control characters count as blank
+    private static boolean isNotBlank(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
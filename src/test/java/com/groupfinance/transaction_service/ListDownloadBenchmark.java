@@ -0,0 +1,219 @@
+package com.groupfinance.transaction_service;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * BENCHMARK ONLY: bytes on the wire and latency of the group list endpoint (GET /api/transactions)
+ * over HTTP/1.1 and HTTP/2 (h2c), each with and without gzip.
+ *
+ * Build with mvn package, then run:
+ *   java -cp target/test-classes com.groupfinance.transaction_service.ListDownloadBenchmark [rows] [clients] [requests] [--app args]
+ *
+ * Starts the fat jar (rate limiting and anomaly rules off, mock STK latency 0), seeds [rows] transactions
+ * (default 1000) into one group, then has [clients] concurrent clients (default 16) each download the list
+ * [requests] times (default 200) per mode. Arguments starting with -- are passed to the app
+ * (e.g. --app.compression.level=1). Gzip bodies are decompressed by the client, as a browser would.
+ */
+public class ListDownloadBenchmark {
+
+    private static final String JAR = "target/transaction-service-0.0.1-SNAPSHOT.jar";
+    private static final String GROUP = "list-bench-group";
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private record Mode(String name, HttpClient.Version version, boolean gzip) {}
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> numbers = new ArrayList<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+            } else {
+                numbers.add(Integer.parseInt(arg));
+            }
+        }
+        int rows = numbers.size() > 0 ? numbers.get(0) : 1000;
+        int clients = numbers.size() > 1 ? numbers.get(1) : 16;
+        int requests = numbers.size() > 2 ? numbers.get(2) : 200;
+        if (!new File(JAR).exists()) {
+            throw new IllegalStateException(JAR + " not found - build it first with mvn package");
+        }
+
+        int port = freePort();
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-jar", JAR, "--server.port=" + port,
+            "--app.rate-limit.enabled=false", "--app.anomaly.enabled=false", "--app.mpesa.mock.latency-ms=0"));
+        command.addAll(appArgs);
+        Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        try {
+            String base = "http://localhost:" + port + "/api/transactions";
+            awaitStartup(process, base + "/health");
+            seed(base, rows);
+            awaitSettled(base);
+
+            List<Mode> modes = List.of(
+                new Mode("http/1.1", HttpClient.Version.HTTP_1_1, false),
+                new Mode("http/1.1+gzip", HttpClient.Version.HTTP_1_1, true),
+                new Mode("h2c", HttpClient.Version.HTTP_2, false),
+                new Mode("h2c+gzip", HttpClient.Version.HTTP_2, true));
+            System.out.printf("%d rows, %d clients x %d requests%n", rows, clients, requests);
+            System.out.printf("%-14s %12s %10s %10s %10s %10s%n", "mode", "bytes/resp", "req/s", "p50 ms", "p99 ms", "max ms");
+            for (Mode mode : modes) {
+                // One untimed round per mode to warm up the JIT on both sides
+                download(base, mode, clients, Math.max(1, requests / 4));
+                download(base, mode, clients, requests).print(mode.name());
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Result download(String base, Mode mode, int clients, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(mode.version()).build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base)).header("X-Group-Id", GROUP).GET();
+        if (mode.gzip()) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        HttpRequest request = builder.build();
+        AtomicLong wireBytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        List<Future<long[]>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(clients)) {
+            for (int c = 0; c < clients; c++) {
+                results.add(pool.submit(() -> {
+                    long[] latencies = new long[requests];
+                    for (int i = 0; i < requests; i++) {
+                        long sent = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException(mode.name() + ": HTTP " + response.statusCode());
+                        }
+                        if (mode.version() != response.version()) {
+                            throw new IllegalStateException(mode.name() + ": server answered with " + response.version());
+                        }
+                        byte[] body = response.body();
+                        boolean gzipped = response.headers().firstValue("Content-Encoding").orElse("").equals("gzip");
+                        if (gzipped) {
+                            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                                in.readAllBytes();
+                            }
+                        } else if (mode.gzip()) {
+                            throw new IllegalStateException(mode.name() + ": response was not compressed");
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                        wireBytes.addAndGet(body.length);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] all = new long[clients * requests];
+        int offset = 0;
+        for (Future<long[]> result : results) {
+            System.arraycopy(result.get(), 0, all, offset, requests);
+            offset += requests;
+        }
+        Arrays.sort(all);
+        return new Result(wireBytes.get() / all.length, all.length * 1_000_000_000.0 / elapsedNanos, all);
+    }
+
+    private record Result(long bytesPerResponse, double throughput, long[] sortedLatencies) {
+
+        void print(String mode) {
+            System.out.printf("%-14s %12d %10.0f %10.1f %10.1f %10.1f%n", mode, bytesPerResponse, throughput,
+                percentile(0.50), percentile(0.99), sortedLatencies[sortedLatencies.length - 1] / 1e6);
+        }
+
+        double percentile(double p) {
+            return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1)] / 1e6;
+        }
+    }
+
+    private static void seed(String base, int rows) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> posts = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                String body = "{\"amount\":" + (100 + i % 900) + ",\"mpesaPhoneNumber\":\"2547" + (10000000 + i)
+                    + "\",\"description\":\"Group expense " + i + "\",\"category\":\"FOOD\",\"groupId\":\"" + GROUP + "\"}";
+                HttpRequest post = HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .header("X-User-Id", "list-bench-" + i % 40)
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+                posts.add(pool.submit(() -> {
+                    HttpResponse<Void> response = client.send(post, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException("Seeding failed: HTTP " + response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> post : posts) {
+                post.get();
+            }
+        }
+    }
+
+    // Seeded rows complete on their own timers; measure only once the list has stopped changing
+    private static void awaitSettled(String base) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest list = HttpRequest.newBuilder(URI.create(base)).header("X-Group-Id", GROUP).GET().build();
+        long start = System.nanoTime();
+        while (client.send(list, HttpResponse.BodyHandlers.ofString()).body().contains("\"status\":\"PENDING\"")) {
+            if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                throw new IllegalStateException("Seeded transactions still PENDING after " + TIMEOUT.toSeconds() + "s");
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    private static void awaitStartup(Process process, String healthUrl) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(healthUrl)).GET().build();
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Process exited with " + process.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (java.io.IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Not started within " + TIMEOUT.toSeconds() + "s");
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
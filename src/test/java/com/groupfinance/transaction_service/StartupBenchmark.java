@@ -0,0 +1,123 @@
+package com.groupfinance.transaction_service;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BENCHMARK ONLY: time from process launch to the first successful POST /api/transactions.
+ *
+ * Build with mvn -Pfast-start package (and -Pnative native:compile for the native mode), then run:
+ *   java -cp target/test-classes com.groupfinance.transaction_service.StartupBenchmark [runs] [mode...]
+ *
+ * Modes: jar (plain fat jar), lazy (fat jar + fast-start profile), aot-cds (extracted jar + AOT + CDS
+ * + fast-start profile), native (GraalVM binary). Default: jar lazy aot-cds.
+ */
+public class StartupBenchmark {
+
+    private static final String JAR = "target/transaction-service-0.0.1-SNAPSHOT.jar";
+    private static final String EXTRACTED_JAR = "target/fast-start/transaction-service-0.0.1-SNAPSHOT.jar";
+    private static final String CDS_ARCHIVE = "target/fast-start/application.jsa";
+    private static final String NATIVE_BINARY = "target/transaction-service";
+    private static final String BODY =
+        "{\"amount\":100,\"mpesaPhoneNumber\":\"254712345678\",\"description\":\"startup\",\"category\":\"FOOD\",\"groupId\":\"startup-group\"}";
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        int runs = 3;
+        List<String> modes = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.chars().allMatch(Character::isDigit)) {
+                runs = Integer.parseInt(arg);
+            } else {
+                modes.add(arg);
+            }
+        }
+        if (modes.isEmpty()) {
+            modes = List.of("jar", "lazy", "aot-cds");
+        }
+
+        System.out.printf("%-8s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+        for (String mode : modes) {
+            List<Long> timings = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                timings.add(timeToFirstPost(mode));
+            }
+            Collections.sort(timings);
+            System.out.printf("%-8s %10d %10d %10d%n", mode, timings.get(0), timings.get(timings.size() / 2),
+                timings.get(timings.size() - 1));
+        }
+    }
+
+    private static long timeToFirstPost(String mode) throws Exception {
+        int port = freePort();
+        List<String> command = command(mode);
+        command.add("--server.port=" + port);
+        // The mock STK push latency isn't part of startup
+        command.add("--app.mpesa.mock.latency-ms=0");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transactions"))
+            .header("Content-Type", "application/json")
+            .header("X-User-Id", "startup-bench")
+            .POST(HttpRequest.BodyPublishers.ofString(BODY))
+            .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + ": process exited with " + process.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = client.send(post, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 == 2) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (java.io.IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(mode + ": no successful POST within " + TIMEOUT.toSeconds() + "s");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> command(String mode) {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        switch (mode) {
+            case "jar" -> command.addAll(List.of(java, "-jar", JAR));
+            case "lazy" -> command.addAll(List.of(java, "-jar", JAR, "--spring.profiles.active=fast-start"));
+            case "aot-cds" -> command.addAll(List.of(java, "-XX:SharedArchiveFile=" + CDS_ARCHIVE, "-Xlog:cds=error",
+                "-Dspring.aot.enabled=true", "-jar", EXTRACTED_JAR, "--spring.profiles.active=fast-start"));
+            case "native" -> command.addAll(List.of(NATIVE_BINARY, "--spring.profiles.active=fast-start"));
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        String artifact = mode.equals("native") ? NATIVE_BINARY : mode.equals("aot-cds") ? EXTRACTED_JAR : JAR;
+        if (!new File(artifact).exists()) {
+            throw new IllegalStateException(artifact + " not found - build it first (see class comment)");
+        }
+        return command;
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
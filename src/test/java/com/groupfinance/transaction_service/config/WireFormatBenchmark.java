@@ -0,0 +1,111 @@
+package com.groupfinance.transaction_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.groupfinance.transaction_service.dto.ApiResponse;
+import com.groupfinance.transaction_service.dto.TransactionSummary;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: encoding a dashboard-sized list response (1000 TransactionSummary rows in ApiResponse)
+ * as JSON (the default) versus the compact CBOR and Smile encodings from BinaryWireFormatConfig.
+ * Payload sizes are printed once per fork.
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       "-Dexec.args=-cp %classpath org.openjdk.jmh.Main WireFormatBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1000"})
+    private int rows;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private ApiResponse<List<TransactionSummary>> response;
+    private byte[] jsonBytes;
+    private byte[] cborBytes;
+    private byte[] smileBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        // Spring Boot's defaults for the JSON mapper: ISO text timestamps
+        json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        cbor = BinaryWireFormatConfig.compactMapper(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .factory(new CBORFactory()));
+        smile = BinaryWireFormatConfig.compactMapper(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .factory(new SmileFactory()));
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        TransactionCategory[] categories = TransactionCategory.values();
+        List<TransactionSummary> summaries = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime createdAt = start.plusMinutes(i * 7L);
+            summaries.add(new TransactionSummary((long) i + 1, 150.0 + i % 500, "Group expense " + i,
+                categories[i % categories.length], TransactionType.EXPENSE, TransactionStatus.COMPLETED,
+                "2547" + (10000000 + i), "MPE2TCG21N" + Integer.toString(i, 36).toUpperCase(),
+                createdAt, createdAt.plusSeconds(25), "user-" + i % 40, "group-7", null));
+        }
+        response = ApiResponse.success("All transactions retrieved successfully", summaries);
+
+        jsonBytes = json.writeValueAsBytes(response);
+        cborBytes = cbor.writeValueAsBytes(response);
+        smileBytes = smile.writeValueAsBytes(response);
+        System.out.printf("%n%d rows: JSON %d bytes, CBOR %d bytes (%.0f%%), Smile %d bytes (%.0f%%)%n", rows,
+            jsonBytes.length, cborBytes.length, 100.0 * cborBytes.length / jsonBytes.length,
+            smileBytes.length, 100.0 * smileBytes.length / jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws Exception {
+        return json.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeCbor() throws Exception {
+        return cbor.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeSmile() throws Exception {
+        return smile.writeValueAsBytes(response);
+    }
+
+    // Client-side decode, as the partner dashboard would
+
+    @Benchmark
+    public Object readJson() throws Exception {
+        return json.readTree(jsonBytes);
+    }
+
+    @Benchmark
+    public Object readCbor() throws Exception {
+        return cbor.readTree(cborBytes);
+    }
+
+    @Benchmark
+    public Object readSmile() throws Exception {
+        return smile.readTree(smileBytes);
+    }
+}
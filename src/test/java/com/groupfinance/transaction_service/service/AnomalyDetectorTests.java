@@ -0,0 +1,49 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Action;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Rule;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Subject;
+import com.groupfinance.transaction_service.config.AnomalyDetectionProperties.Window;
+import com.groupfinance.transaction_service.exception.TransactionHeldException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Only transactions that were created count towards a hold - checked-but-refused attempts don't
+ */
+class AnomalyDetectorTests {
+
+	private static AnomalyDetector detectorHoldingAfter(int maxCount) {
+		Rule rule = new Rule();
+		rule.setSubject(Subject.PHONE);
+		rule.setWindow(Window.MINUTE);
+		rule.setMaxCount(maxCount);
+		rule.setAction(Action.HOLD);
+		AnomalyDetectionProperties properties = new AnomalyDetectionProperties();
+		properties.getRules().put("phone-burst", rule);
+		return new AnomalyDetector(properties);
+	}
+
+	@Test
+	void checkAloneNeverFillsTheWindows() {
+		AnomalyDetector detector = detectorHoldingAfter(3);
+		// e.g. M-Pesa down or the save failing after every check
+		for (int i = 0; i < 10; i++) {
+			detector.check("user-1", "254700000001", 100);
+		}
+	}
+
+	@Test
+	void recordedTransactionsTriggerTheHold() {
+		AnomalyDetector detector = detectorHoldingAfter(3);
+		for (int i = 0; i < 3; i++) {
+			detector.check("user-1", "254700000001", 100);
+			detector.record("user-1", "254700000001", 100);
+		}
+		assertThrows(TransactionHeldException.class, () -> detector.check("user-2", "254700000001", 100));
+		// Another phone has its own window
+		detector.check("user-1", "254700000002", 100);
+	}
+}
@@ -0,0 +1,114 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.repository.ClusterNodeRepository;
+import com.groupfinance.transaction_service.repository.PartitionLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two lease managers sharing one database stand in for two service instances
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:clustertest",
+		"app.cluster.enabled=false"
+})
+class ClusterLeaseManagerTests {
+
+	private static final int PARTITIONS = 16;
+	private static final long LEASE_TTL_MS = 1000;
+
+	@Autowired
+	private PartitionLeaseRepository leaseRepository;
+
+	@Autowired
+	private ClusterNodeRepository nodeRepository;
+
+	@Test
+	void partitionsSplitAcrossNodesAndSurvivorTakesOverDeadNode() throws InterruptedException {
+		List<PartitionsAcquiredEvent> bEvents = new ArrayList<>();
+		ClusterLeaseManager a = node("node-a", event -> { });
+		ClusterLeaseManager b = node("node-b", event -> bEvents.add((PartitionsAcquiredEvent) event));
+
+		assertEquals(PARTITIONS, a.rebalance().size());
+		assertTrue(b.rebalance().isEmpty(), "everything is still leased to node-a");
+
+		// node-a sees a second live node and hands back half; node-b picks it up
+		a.rebalance();
+		b.rebalance();
+		Set<Integer> aOwned = a.getOwnedPartitions();
+		Set<Integer> bOwned = b.getOwnedPartitions();
+		assertEquals(PARTITIONS / 2, aOwned.size());
+		assertEquals(PARTITIONS / 2, bOwned.size());
+		Set<Integer> union = new HashSet<>(aOwned);
+		union.addAll(bOwned);
+		assertEquals(PARTITIONS, union.size());
+
+		// Exactly one node acts on any given transaction
+		for (long transactionId = 1; transactionId <= 200; transactionId++) {
+			assertTrue(a.owns(transactionId) ^ b.owns(transactionId), "transaction " + transactionId);
+		}
+
+		// node-a dies (stops renewing); node-b takes over its partitions once the leases lapse
+		bEvents.clear();
+		Thread.sleep(LEASE_TTL_MS + 200);
+		Set<Integer> takenOver = b.rebalance();
+		assertEquals(aOwned, takenOver);
+		assertEquals(1, bEvents.size());
+		assertEquals(aOwned, bEvents.get(0).partitions());
+		assertEquals(PARTITIONS, b.getOwnedPartitions().size());
+		for (long transactionId = 1; transactionId <= 200; transactionId++) {
+			assertFalse(a.owns(transactionId));
+			assertTrue(b.owns(transactionId));
+		}
+
+		// A clean shutdown hands partitions over without waiting for expiry
+		ClusterLeaseManager c = node("node-c", event -> { });
+		c.rebalance();
+		b.releaseAll();
+		assertEquals(PARTITIONS, c.rebalance().size());
+	}
+
+	@Test
+	void nodesClaimDistinctWorkerIdsAndKeepThemAcrossHeartbeats() {
+		ClusterLeaseManager a = node("worker-a", event -> { });
+		ClusterLeaseManager b = node("worker-b", event -> { });
+
+		// Both prefer the same ID; the second claimant moves on to the next free one
+		int aWorker = a.claimWorkerId(7, 1023);
+		int bWorker = b.claimWorkerId(7, 1023);
+		assertEquals(7, aWorker);
+		assertNotEquals(aWorker, bWorker);
+
+		a.rebalance();
+		b.rebalance();
+		assertEquals(aWorker, a.claimWorkerId(99, 1023));
+		assertEquals(Integer.valueOf(aWorker), nodeRepository.findById("worker-a").orElseThrow().getWorkerId());
+
+		// A clean shutdown keeps the ID reserved, so a newcomer doesn't reuse it straight away
+		a.releaseAll();
+		ClusterLeaseManager c = node("worker-c", event -> { });
+		int cWorker = c.claimWorkerId(7, 1023);
+		assertNotEquals(aWorker, cWorker);
+		assertNotEquals(bWorker, cWorker);
+
+		// Leave no live nodes or leases behind for the other test
+		b.releaseAll();
+		c.releaseAll();
+	}
+
+	private ClusterLeaseManager node(String nodeId, ApplicationEventPublisher publisher) {
+		ClusterLeaseManager manager = new ClusterLeaseManager(leaseRepository, nodeRepository, publisher,
+				nodeId, PARTITIONS, LEASE_TTL_MS, true);
+		manager.init();
+		return manager;
+	}
+}
@@ -0,0 +1,77 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BENCHMARK ONLY: measures sustained inserts per second against whichever store is active.
+ * Lives in the test sources so it never ships; run the application with the test classpath and
+ * a persistence profile, e.g.
+ *
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.groupfinance.transaction_service.TransactionServiceApplication \
+ *       -Dexec.args=--spring.profiles.active=durable,benchmark
+ */
+@Component
+@Profile("benchmark")
+public class InsertThroughputBenchmark implements CommandLineRunner {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int totalRows;
+    private final int rowsPerCommit;
+
+    public InsertThroughputBenchmark(TransactionRepository transactionRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${benchmark.insert.rows:100000}") int totalRows,
+                                     @Value("${benchmark.insert.rows-per-commit:500}") int rowsPerCommit) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.totalRows = totalRows;
+        this.rowsPerCommit = rowsPerCommit;
+    }
+
+    @Override
+    public void run(String... args) {
+        // Warm up JIT, pool and sequence before timing
+        insert(Math.min(totalRows / 10, 10000));
+
+        long start = System.nanoTime();
+        insert(totalRows);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println("=== INSERT THROUGHPUT BENCHMARK ===");
+        System.out.println("Rows: " + totalRows + " (" + rowsPerCommit + " per commit)");
+        System.out.printf("Elapsed: %.2f s%n", seconds);
+        System.out.printf("Sustained inserts/sec: %.0f%n", totalRows / seconds);
+    }
+
+    private void insert(int rows) {
+        for (int done = 0; done < rows; done += rowsPerCommit) {
+            int batchSize = Math.min(rowsPerCommit, rows - done);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Transaction> batch = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    Transaction transaction = new Transaction(TransactionType.EXPENSE, 100.0 + i,
+                        "benchmark row", TransactionCategory.SUPPLIES, "benchmark-user");
+                    transaction.setMpesaPhoneNumber("254712345678");
+                    transaction.setGroupId("benchmark-group");
+                    transaction.setStatus(TransactionStatus.COMPLETED);
+                    batch.add(transaction);
+                }
+                transactionRepository.saveAll(batch);
+            });
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.groupfinance.transaction_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Circuit breaker state transitions and the bulkhead's AIMD concurrency limit
+ */
+class MpesaResilienceTests {
+
+	private static final long OPEN_MS = 100;
+
+	// window 10, at least 4 calls, open at 50% failures or 80% slow calls (>= 1000 ms), 2 half-open trials
+	private static CircuitBreaker breaker() {
+		return new CircuitBreaker(10, 4, 50, 80, 1000, OPEN_MS, 2);
+	}
+
+	@Test
+	void breakerOpensOnFailureRateOnlyAfterMinimumCalls() {
+		CircuitBreaker breaker = breaker();
+		call(breaker, false, 1);
+		call(breaker, false, 1);
+		call(breaker, false, 1);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "3 calls are below the minimum");
+
+		call(breaker, true, 1);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "3 of 4 failed");
+		assertFalse(breaker.tryAcquirePermission());
+		assertTrue(breaker.getRemainingOpenMillis() > 0);
+	}
+
+	@Test
+	void breakerOpensOnSlowCalls() {
+		CircuitBreaker breaker = breaker();
+		for (int i = 0; i < 4; i++) {
+			call(breaker, true, 2000);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void halfOpenClosesAfterSuccessfulTrialsAndReopensOnFailure() throws InterruptedException {
+		CircuitBreaker breaker = opened();
+		Thread.sleep(OPEN_MS + 20);
+
+		assertTrue(breaker.tryAcquirePermission());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission(), "only two trial calls");
+		breaker.record(true, 1);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.record(true, 1);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker = opened();
+		Thread.sleep(OPEN_MS + 20);
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.record(false, 1);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void releasedPermissionIsNotCountedAsTrialSuccess() throws InterruptedException {
+		CircuitBreaker breaker = opened();
+		Thread.sleep(OPEN_MS + 20);
+
+		// Two trials rejected locally (e.g. by the bulkhead) must not close the breaker
+		assertTrue(breaker.tryAcquirePermission());
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.releasePermission();
+		breaker.releasePermission();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+		// ...and the permits come back for real trials
+		assertTrue(breaker.tryAcquirePermission());
+		assertTrue(breaker.tryAcquirePermission());
+		assertFalse(breaker.tryAcquirePermission());
+		breaker.record(true, 1);
+		breaker.record(true, 1);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void releasedPermissionDoesNotDiluteClosedWindow() {
+		CircuitBreaker breaker = breaker();
+		call(breaker, false, 1);
+		call(breaker, false, 1);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(breaker.tryAcquirePermission());
+			breaker.releasePermission();
+		}
+		call(breaker, true, 1);
+		call(breaker, false, 1);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "3 of 4 real calls failed");
+	}
+
+	@Test
+	void bulkheadLimitDecreasesMultiplicativelyAndRecoversAdditively() {
+		AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(2, 10, 100, 0);
+		assertEquals(10, bulkhead.getLimit());
+
+		assertTrue(bulkhead.tryAcquire());
+		bulkhead.release(false, 1);
+		assertEquals(9, bulkhead.getLimit(), "10 x 0.9");
+		assertTrue(bulkhead.tryAcquire());
+		bulkhead.release(true, 500);
+		assertEquals(8, bulkhead.getLimit(), "a slow success counts as overload: 9 x 0.9 = 8.1");
+
+		// Never below the floor
+		for (int i = 0; i < 50; i++) {
+			assertTrue(bulkhead.tryAcquire());
+			bulkhead.release(false, 1);
+		}
+		assertEquals(2, bulkhead.getLimit());
+
+		// +1/limit per fast success: 2 -> 2.5 -> 2.9 -> 3.24
+		assertTrue(bulkhead.tryAcquire());
+		bulkhead.release(true, 1);
+		assertTrue(bulkhead.tryAcquire());
+		bulkhead.release(true, 1);
+		assertEquals(2, bulkhead.getLimit());
+		assertTrue(bulkhead.tryAcquire());
+		bulkhead.release(true, 1);
+		assertEquals(3, bulkhead.getLimit());
+
+		// ...and never above the cap
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(bulkhead.tryAcquire());
+			bulkhead.release(true, 1);
+		}
+		assertEquals(10, bulkhead.getLimit());
+	}
+
+	@Test
+	void bulkheadRejectsCallsOverTheLimitAfterWaiting() {
+		AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(2, 2, 100, 20);
+		assertTrue(bulkhead.tryAcquire());
+		assertTrue(bulkhead.tryAcquire());
+		long started = System.nanoTime();
+		assertFalse(bulkhead.tryAcquire());
+		assertTrue(System.nanoTime() - started >= 15_000_000, "waits up to maxWaitMillis before rejecting");
+		assertEquals(1, bulkhead.getRejected());
+		assertEquals(2, bulkhead.getInFlight());
+
+		bulkhead.release(true, 1);
+		assertTrue(bulkhead.tryAcquire());
+	}
+
+	private static CircuitBreaker opened() {
+		CircuitBreaker breaker = breaker();
+		for (int i = 0; i < 4; i++) {
+			call(breaker, false, 1);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		return breaker;
+	}
+
+	private static void call(CircuitBreaker breaker, boolean success, long elapsedMillis) {
+		assertTrue(breaker.tryAcquirePermission());
+		breaker.record(success, elapsedMillis);
+	}
+}
@@ -0,0 +1,66 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.RateLimitProperties;
+import com.groupfinance.transaction_service.config.RateLimitProperties.EndpointLimits;
+import com.groupfinance.transaction_service.config.RateLimitProperties.Limit;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: cost of RateLimiter.acquire on the hot path (both buckets already exist and admit the request),
+ * single-threaded and with every thread hammering the same user and phone (CAS contention).
+ * The budget is well under a microsecond per call.
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       "-Dexec.args=-cp %classpath org.openjdk.jmh.Main RateLimiterBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    // Non-final so the JIT can't constant-fold the map lookups
+    private String userId = "user-1";
+    private String phone = "254712345678";
+    private RateLimiter rateLimiter;
+
+    @Setup
+    public void setup() {
+        // Limits high enough that the benchmark never gets rejected
+        EndpointLimits limits = new EndpointLimits();
+        limits.setPerUser(limit(Integer.MAX_VALUE));
+        limits.setPerPhone(limit(Integer.MAX_VALUE));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().put("create", limits);
+        rateLimiter = new RateLimiter(properties);
+    }
+
+    @Benchmark
+    public void acquire() {
+        rateLimiter.acquire("create", userId, phone);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void acquireContended() {
+        rateLimiter.acquire("create", userId, phone);
+    }
+
+    @Benchmark
+    public void acquireUnlimitedEndpoint() {
+        // Endpoints without configured limits only pay for the map miss
+        rateLimiter.acquire("list", userId, phone);
+    }
+
+    private static Limit limit(int requests) {
+        Limit limit = new Limit();
+        limit.setRequests(requests);
+        limit.setPeriod(Duration.ofNanos(requests));
+        return limit;
+    }
+}
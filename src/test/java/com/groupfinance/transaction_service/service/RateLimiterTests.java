@@ -0,0 +1,63 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.config.RateLimitProperties;
+import com.groupfinance.transaction_service.config.RateLimitProperties.EndpointLimits;
+import com.groupfinance.transaction_service.config.RateLimitProperties.Limit;
+import com.groupfinance.transaction_service.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A request rejected by one limit must not use up the other
+ */
+class RateLimiterTests {
+
+	@Test
+	void phoneRejectionDoesNotConsumeUserSlot() {
+		RateLimiter rateLimiter = rateLimiter(2, 1);
+
+		rateLimiter.acquire("create", "user-1", "254700000001");
+		RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire("create", "user-1", "254700000001"));
+		assertTrue(rejected.getMessage().contains("phone"));
+
+		// The user still has the second slot
+		rateLimiter.acquire("create", "user-1", "254700000002");
+		rejected = assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire("create", "user-1", "254700000003"));
+		assertTrue(rejected.getMessage().contains("user"));
+	}
+
+	@Test
+	void userRejectionDoesNotConsumePhoneSlot() {
+		RateLimiter rateLimiter = rateLimiter(1, 2);
+
+		rateLimiter.acquire("create", "user-1", "254700000001");
+		assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire("create", "user-1", "254700000001"));
+
+		// The phone still has the second slot
+		rateLimiter.acquire("create", "user-2", "254700000001");
+		assertThrows(RateLimitExceededException.class,
+				() -> rateLimiter.acquire("create", "user-3", "254700000001"));
+	}
+
+	private static RateLimiter rateLimiter(int perUser, int perPhone) {
+		EndpointLimits limits = new EndpointLimits();
+		limits.setPerUser(limit(perUser));
+		limits.setPerPhone(limit(perPhone));
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.getEndpoints().put("create", limits);
+		return new RateLimiter(properties);
+	}
+
+	private static Limit limit(int requests) {
+		Limit limit = new Limit();
+		limit.setRequests(requests);
+		limit.setPeriod(Duration.ofHours(1));
+		return limit;
+	}
+}
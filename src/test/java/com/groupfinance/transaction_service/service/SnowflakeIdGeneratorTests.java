@@ -0,0 +1,105 @@
+package com.groupfinance.transaction_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uniqueness under contention: several threads draw millions of IDs as fast as they can,
+ * which also runs through many exhausted milliseconds (4096 IDs each)
+ */
+class SnowflakeIdGeneratorTests {
+
+	private static final int IDS_PER_THREAD = 1_000_000;
+
+	@Test
+	void idsAreUniqueAcrossThreadsAndMonotonicWithinEach() throws Exception {
+		// Every worker bit set, so a sequence carry into the worker field would show up
+		int workerId = SnowflakeIdGenerator.MAX_WORKER;
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(workerId);
+		int threads = Math.max(4, Math.min(8, Runtime.getRuntime().availableProcessors()));
+		CountDownLatch start = new CountDownLatch(1);
+
+		List<Future<long[]>> results = new ArrayList<>();
+		long began;
+		try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+			for (int t = 0; t < threads; t++) {
+				results.add(pool.submit(() -> {
+					long[] ids = new long[IDS_PER_THREAD];
+					start.await();
+					for (int i = 0; i < ids.length; i++) {
+						ids[i] = generator.nextId();
+					}
+					return ids;
+				}));
+			}
+			began = System.nanoTime();
+			start.countDown();
+		}
+		long elapsedNanos = System.nanoTime() - began;
+
+		long[] all = new long[threads * IDS_PER_THREAD];
+		int offset = 0;
+		for (Future<long[]> result : results) {
+			long[] ids = result.get();
+			for (int i = 1; i < ids.length; i++) {
+				assertTrue(ids[i] > ids[i - 1], "IDs must increase on each thread");
+			}
+			System.arraycopy(ids, 0, all, offset, ids.length);
+			offset += ids.length;
+		}
+		Arrays.sort(all);
+		for (int i = 1; i < all.length; i++) {
+			assertNotEquals(all[i - 1], all[i], "duplicate ID");
+		}
+		for (long id : new long[] {all[0], all[all.length / 2], all[all.length - 1]}) {
+			assertEquals(workerId, (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER);
+		}
+
+		// Borrowed milliseconds stay within the allowed drift of the wall clock
+		Instant newest = SnowflakeIdGenerator.timestampOf(all[all.length - 1]);
+		assertTrue(Duration.between(Instant.now(), newest).toMillis() <= 1000, "clock ran ahead: " + newest);
+
+		System.out.printf("%d IDs on %d threads in %d ms (%.1f million/s)%n", all.length, threads,
+			elapsedNanos / 1_000_000, all.length * 1000.0 / elapsedNanos);
+	}
+
+	@Test
+	void workerIdIsValidated() {
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER + 1));
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+		int derived = SnowflakeIdGenerator.workerIdFor("node-1a2b3c4d");
+		assertTrue(derived >= 0 && derived <= SnowflakeIdGenerator.MAX_WORKER);
+	}
+
+	@Test
+	void clockSteppedFarBackFailsInsteadOfSpinning() {
+		long start = System.currentTimeMillis();
+		AtomicLong wallClock = new AtomicLong(start);
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, wallClock::get);
+		long last = generator.nextId();
+
+		// An hour back: the generator borrows ahead up to its drift limit, then must give up, not spin for an hour
+		wallClock.set(start - Duration.ofHours(1).toMillis());
+		long began = System.nanoTime();
+		IllegalStateException failure = assertThrows(IllegalStateException.class, () -> {
+			for (int i = 0; i < 10_000_000; i++) {
+				long id = generator.nextId();
+				assertTrue(id > last);
+			}
+		});
+		assertTrue(failure.getMessage().contains("behind"));
+		assertTrue(Duration.ofNanos(System.nanoTime() - began).toSeconds() < 10, "waited too long");
+	}
+}
@@ -0,0 +1,96 @@
+package com.groupfinance.transaction_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The dashboard sketches stay within their error bounds, survive a persistence round trip, and
+ * merge to the same answer however the data was split into buckets
+ */
+class StatsSketchTests {
+
+	@Test
+	void hyperLogLogEstimatesAndMergesLikeTheUnion() {
+		HyperLogLog all = new HyperLogLog();
+		HyperLogLog even = new HyperLogLog();
+		HyperLogLog odd = new HyperLogLog();
+		int distinct = 100_000;
+		for (int i = 0; i < distinct; i++) {
+			String payer = "user-" + i;
+			// Every value seen twice must not count twice
+			all.add(payer);
+			all.add(payer);
+			(i % 2 == 0 ? even : odd).add(payer);
+		}
+		assertEquals(distinct, all.estimate(), distinct * 0.05);
+
+		even.merge(odd);
+		assertEquals(all.estimate(), even.estimate());
+
+		// Small sets are counted (nearly) exactly
+		HyperLogLog small = new HyperLogLog();
+		for (int i = 0; i < 50; i++) {
+			small.add("2547000000" + i);
+		}
+		assertEquals(50, small.estimate(), 1);
+	}
+
+	@Test
+	void hyperLogLogRoundTripsSparseAndDense() {
+		HyperLogLog sparse = new HyperLogLog();
+		for (int i = 0; i < 40; i++) {
+			sparse.add("user-" + i);
+		}
+		byte[] sparseBytes = sparse.toBytes();
+		assertTrue(sparseBytes.length < 200, "few payers should serialize sparsely");
+		assertEquals(sparse.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+
+		HyperLogLog dense = new HyperLogLog();
+		for (int i = 0; i < 20_000; i++) {
+			dense.add("user-" + i);
+		}
+		byte[] denseBytes = dense.toBytes();
+		assertEquals(1 + (1 << HyperLogLog.PRECISION), denseBytes.length);
+		assertEquals(dense.estimate(), HyperLogLog.fromBytes(denseBytes).estimate());
+	}
+
+	@Test
+	void quantilesStayWithinRelativeAccuracyAndMergeOrderIndependently() {
+		Random random = new Random(42);
+		int n = 50_000;
+		double[] amounts = new double[n];
+		AmountQuantileSketch all = new AmountQuantileSketch();
+		AmountQuantileSketch[] days = new AmountQuantileSketch[7];
+		Arrays.setAll(days, d -> new AmountQuantileSketch());
+		for (int i = 0; i < n; i++) {
+			// Long-tailed, like contributions: mostly small, a few very large
+			amounts[i] = Math.round(Math.exp(4 + 2.5 * random.nextGaussian()) * 100) / 100.0 + 1;
+			all.add(amounts[i]);
+			days[i % days.length].add(amounts[i]);
+		}
+		Arrays.sort(amounts);
+
+		for (double q : new double[] {0.0, 0.5, 0.9, 0.99, 1.0}) {
+			double exact = amounts[(int) Math.floor(q * (n - 1))];
+			assertEquals(exact, all.quantile(q), exact * AmountQuantileSketch.RELATIVE_ACCURACY, "q=" + q);
+		}
+
+		AmountQuantileSketch forwards = new AmountQuantileSketch();
+		AmountQuantileSketch backwards = new AmountQuantileSketch();
+		for (int d = 0; d < days.length; d++) {
+			forwards.merge(days[d]);
+			backwards.merge(AmountQuantileSketch.fromBytes(days[days.length - 1 - d].toBytes()));
+		}
+		assertEquals(n, backwards.getCount());
+		for (double q : new double[] {0.5, 0.9, 0.99}) {
+			assertEquals(all.quantile(q), forwards.quantile(q));
+			assertEquals(all.quantile(q), backwards.quantile(q));
+		}
+
+		assertNull(new AmountQuantileSketch().quantile(0.5));
+	}
+}
@@ -0,0 +1,64 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.StkRetryStatus;
+import com.groupfinance.transaction_service.model.StkRetryTask;
+import com.groupfinance.transaction_service.repository.StkRetryTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A worker that outlives its claim (re-queued as stale, then re-claimed) can't overwrite
+ * the entry with its late outcome
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:stkretrytest",
+		"app.cluster.enabled=false",
+		"app.stk-retry.base-delay-ms=0",
+		"app.stk-retry.max-attempts=1",
+		"app.stk-retry.stale-claim-ms=0",
+		// Keep the scheduled drain from claiming the test's entries
+		"app.stk-retry.poll-interval-ms=3600000"
+})
+class StkRetryQueueTests {
+
+	@Autowired private StkRetryQueue stkRetryQueue;
+	@Autowired private StkRetryTaskRepository retryRepository;
+
+	@Test
+	void staleWorkerOutcomeIsDropped() throws Exception {
+		stkRetryQueue.enqueue(4242L, "Timed out");
+		List<StkRetryTask> firstClaim = stkRetryQueue.claimDue();
+		assertEquals(1, firstClaim.size());
+		StkRetryTask stale = firstClaim.get(0);
+
+		// stale-claim-ms=0: the next claim re-queues the first one and hands the entry to a new worker
+		Thread.sleep(5);
+		List<StkRetryTask> secondClaim = stkRetryQueue.claimDue();
+		assertEquals(1, secondClaim.size());
+		StkRetryTask current = secondClaim.get(0);
+		assertNotEquals(stale.getClaimToken(), current.getClaimToken());
+
+		// The stale worker can neither dead-letter nor finish it
+		assertFalse(stkRetryQueue.markFailed(stale, "Late failure"));
+		assertFalse(stkRetryQueue.markDone(stale));
+		StkRetryTask entry = retryRepository.findById(current.getId()).orElseThrow();
+		assertEquals(StkRetryStatus.IN_PROGRESS, entry.getStatus());
+		assertEquals(current.getClaimToken(), entry.getClaimToken());
+
+		// The current worker still can
+		assertTrue(stkRetryQueue.markDone(current));
+		entry = retryRepository.findById(current.getId()).orElseThrow();
+		assertEquals(StkRetryStatus.DONE, entry.getStatus());
+		assertNull(entry.getClaimToken());
+
+		// ... once
+		assertFalse(stkRetryQueue.markFailed(current, "Late failure"));
+		assertEquals(StkRetryStatus.DONE, retryRepository.findById(current.getId()).orElseThrow().getStatus());
+	}
+}
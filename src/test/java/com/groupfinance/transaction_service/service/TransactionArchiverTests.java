@@ -0,0 +1,84 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archive passes racing each other (two nodes, or a pass overlapping a lease handover)
+ * must still archive every row exactly once
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:archivertest",
+		"app.cluster.enabled=false",
+		"app.archive.batch-size=50"
+})
+class TransactionArchiverTests {
+
+	private static final int ROWS = 400;
+
+	@Autowired private TransactionArchiver transactionArchiver;
+	@Autowired private TransactionRepository transactionRepository;
+
+	@Test
+	void concurrentPassesArchiveEachRowOnce() throws Exception {
+		LocalDateTime createdAt = LocalDateTime.now().minusYears(2).withDayOfMonth(10);
+		String month = createdAt.format(DateTimeFormatter.ofPattern("yyyy-MM"));
+		Set<Long> ids = new HashSet<>();
+		for (int i = 0; i < ROWS; i++) {
+			Transaction transaction = new Transaction(TransactionType.EXPENSE, 10.0 + i, "Archive test",
+					TransactionCategory.FOOD, "user-1");
+			transaction.setGroupId("archive-group");
+			transaction.setMpesaPhoneNumber("254712345678");
+			transaction.setStatus(TransactionStatus.COMPLETED);
+			transaction.setCreatedAt(createdAt);
+			ids.add(transactionRepository.save(transaction).getId());
+		}
+		assertFalse(transactionArchiver.isMonthSealed(month, 0));
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> passes = new ArrayList<>();
+		try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+			for (int t = 0; t < 2; t++) {
+				passes.add(pool.submit(() -> {
+					start.await();
+					transactionArchiver.archiveOldTransactions();
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> pass : passes) {
+				pass.get();
+			}
+		}
+		// A pass that lost a race gives up on that batch; one more pass picks up whatever it left
+		transactionArchiver.archiveOldTransactions();
+
+		List<Long> archived = transactionArchiver.findArchivedByMonth(month).stream()
+				.map(Transaction::getId)
+				.filter(ids::contains)
+				.toList();
+		assertEquals(ROWS, archived.size(), "every row archived exactly once");
+		assertEquals(ids, new HashSet<>(archived));
+		assertTrue(transactionRepository.findAllById(ids).isEmpty());
+		assertTrue(transactionArchiver.isMonthSealed(month, 0));
+	}
+}
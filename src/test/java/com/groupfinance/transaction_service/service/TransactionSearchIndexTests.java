@@ -0,0 +1,146 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionType;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Segments survive a reopen, merges keep postings sorted and distinct, and exact and prefix
+ * matches are found whether a document sits in the buffer or in a segment - never outside the scope
+ */
+class TransactionSearchIndexTests {
+
+	@TempDir Path directory;
+
+	// No shards to tail: refresh() only flushes and merges what was indexed directly
+	private TransactionSearchIndex openIndex(boolean clearOnStart, int flushDocs, int maxSegments) throws Exception {
+		TransactionSearchIndex index = new TransactionSearchIndex(mock(TransactionRepository.class),
+				mock(ShardRouter.class), directory.toString(), clearOnStart, flushDocs, maxSegments);
+		index.open();
+		return index;
+	}
+
+	private static Transaction transaction(long id, String groupId, String userId, String description, String receipt) {
+		Transaction transaction = new Transaction(TransactionType.EXPENSE, 100.0, description,
+				TransactionCategory.TRANSPORT, userId);
+		transaction.setId(id);
+		transaction.setGroupId(groupId);
+		transaction.setMpesaReceiptNumber(receipt);
+		return transaction;
+	}
+
+	private List<Path> segmentFiles() throws Exception {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.toString().endsWith(".idx")).sorted().toList();
+		}
+	}
+
+	@Test
+	void segmentReopensWithExactAndPrefixLookups() throws Exception {
+		Path file = directory.resolve("segment-test.idx");
+		SearchIndexSegment.write(file, Map.of(
+				"fuel", List.of(7L, 3L, 3L),
+				"fuelling", List.of(9L),
+				"food", List.of(3L, 11L)));
+		SearchIndexSegment segment = SearchIndexSegment.open(file);
+
+		SearchIndexSegment.LongList exact = new SearchIndexSegment.LongList();
+		segment.collectTerm("fuel".getBytes(StandardCharsets.UTF_8), exact);
+		assertArrayEquals(new long[] {3, 7}, exact.toArray());
+		SearchIndexSegment.LongList missing = new SearchIndexSegment.LongList();
+		segment.collectTerm("fue".getBytes(StandardCharsets.UTF_8), missing);
+		assertEquals(0, missing.toArray().length);
+
+		long[] candidates = {3, 7, 9, 11};
+		boolean[] hit = new boolean[candidates.length];
+		int remaining = segment.markPrefixMatches("fue".getBytes(StandardCharsets.UTF_8), candidates, hit, candidates.length);
+		assertEquals(1, remaining);
+		assertArrayEquals(new boolean[] {true, true, true, false}, hit);
+	}
+
+	@Test
+	void searchFindsBufferAndSegmentDocumentsAcrossAReopen() throws Exception {
+		TransactionSearchIndex index = openIndex(true, 2, 8);
+		index.index(transaction(1, "group-a", "user-1", "Fuel for the van", "QKX100"));
+		index.index(transaction(2, "group-a", "user-1", "Lunch", null));
+		index.refresh();
+		assertEquals(1, segmentFiles().size());
+		// Still in the buffer
+		index.index(transaction(3, "group-a", "user-2", "Fuelling station", "QKX200"));
+
+		assertArrayEquals(new long[] {1, 3}, index.search("fuel", null, "group-a"));
+		assertArrayEquals(new long[] {1, 3}, index.search("fue", null, "group-a"));
+		assertArrayEquals(new long[] {3}, index.search("fuelling", null, "group-a"));
+		assertArrayEquals(new long[] {1}, index.search("qkx100", null, "group-a"));
+		assertArrayEquals(new long[] {1, 3}, index.search("qkx", null, "group-a"));
+		assertArrayEquals(new long[] {1, 2, 3}, index.search("transport", null, "group-a"));
+		// Every token has to match
+		assertArrayEquals(new long[] {3}, index.search("fuel qkx2", null, "group-a"));
+		assertArrayEquals(new long[0], index.search("diesel", null, "group-a"));
+
+		index.close();
+		TransactionSearchIndex reopened = openIndex(false, 2, 8);
+		assertEquals(2, segmentFiles().size());
+		assertArrayEquals(new long[] {1, 3}, reopened.search("fue", null, "group-a"));
+		assertArrayEquals(new long[] {3}, reopened.search("qkx2", null, "group-a"));
+	}
+
+	@Test
+	void mergeKeepsPostingsSortedAndDistinct() throws Exception {
+		TransactionSearchIndex index = openIndex(true, 1, 1);
+		// The same document reindexed (say, once its receipt arrives) lands in a second segment
+		index.index(transaction(5, "group-a", "user-1", "Fuel", null));
+		index.refresh();
+		index.index(transaction(5, "group-a", "user-1", "Fuel", "QKX500"));
+		index.index(transaction(4, "group-a", "user-1", "Fuel", null));
+		index.refresh();
+
+		List<Path> files = segmentFiles();
+		assertEquals(1, files.size());
+		List<String> terms = new ArrayList<>();
+		SearchIndexSegment.open(files.get(0)).forEachTerm((term, ids) -> {
+			terms.add(term);
+			for (int i = 1; i < ids.length; i++) {
+				assertTrue(ids[i - 1] < ids[i], "postings of " + term + " not sorted and distinct");
+			}
+		});
+		assertTrue(terms.contains("fuel"));
+		assertTrue(terms.contains("qkx500"));
+
+		assertArrayEquals(new long[] {4, 5}, index.search("fuel", null, "group-a"));
+		assertArrayEquals(new long[] {5}, index.search("qkx", null, "group-a"));
+	}
+
+	@Test
+	void scopedSearchNeverReturnsAnotherScopesIds() throws Exception {
+		TransactionSearchIndex index = openIndex(true, 2, 8);
+		index.index(transaction(1, "group-a", "user-1", "Fuel", null));
+		index.index(transaction(2, "group-b", "user-2", "Fuel", null));
+		index.refresh();
+		index.index(transaction(3, "group-a", "user-1", "Fuel", null));
+		index.index(transaction(4, "group-b", "user-2", "Fuel", null));
+
+		assertArrayEquals(new long[] {1, 3}, index.search("fu", null, "group-a"));
+		assertArrayEquals(new long[] {2, 4}, index.search("fu", null, "group-b"));
+		assertArrayEquals(new long[0], index.search("fu", null, "group-c"));
+		// Without a group, the user's own transactions
+		assertArrayEquals(new long[] {2, 4}, index.search("fuel", "user-2", null));
+		// A query can't reach the scope pseudo-terms
+		assertArrayEquals(new long[0], index.search("group", null, "group-a"));
+		assertArrayEquals(new long[0], index.search("user", null, "group-a"));
+	}
+}
@@ -0,0 +1,177 @@
+package com.groupfinance.transaction_service.service;
+
+import com.groupfinance.transaction_service.model.Transaction;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import com.groupfinance.transaction_service.model.TransactionStatsSketch;
+import com.groupfinance.transaction_service.model.TransactionStatus;
+import com.groupfinance.transaction_service.model.TransactionType;
+import com.groupfinance.transaction_service.repository.ClusterNodeRepository;
+import com.groupfinance.transaction_service.repository.PartitionLeaseRepository;
+import com.groupfinance.transaction_service.repository.TransactionRepository;
+import com.groupfinance.transaction_service.repository.TransactionStatsSketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two service instances with their own lease managers, sharing one database: a timer armed on the
+ * node that created a transaction completes it even when another node owns its partition, and timers
+ * armed on both nodes complete it exactly once
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:clusterservicetest",
+		"app.cluster.enabled=false"
+})
+class TransactionServiceClusterTests {
+
+	private static final int PARTITIONS = 16;
+
+	@Autowired private TransactionRepository transactionRepository;
+	@Autowired private TransactionStatsSketchRepository sketchRepository;
+	@Autowired private PartitionLeaseRepository leaseRepository;
+	@Autowired private ClusterNodeRepository nodeRepository;
+	@Autowired private MpesaMockService mpesaMockService;
+	@Autowired private MpesaGateway mpesaGateway;
+	@Autowired private ReadYourWritesTracker readYourWritesTracker;
+	@Autowired private TransactionArchiver transactionArchiver;
+	@Autowired private StkRetryQueue stkRetryQueue;
+	@Autowired private TaskScheduler taskScheduler;
+	@Autowired private TransactionTemplate transactionTemplate;
+	@Autowired private ShardRouter shardRouter;
+	@Autowired private TransactionSearchIndex searchIndex;
+	@Autowired private AnomalyDetector anomalyDetector;
+	@Autowired private TransactionStatsService statsService;
+
+	private ClusterLeaseManager leasesA;
+	private ClusterLeaseManager leasesB;
+	private TransactionServiceImpl nodeA;
+	private TransactionServiceImpl nodeB;
+
+	@BeforeEach
+	void splitPartitions() {
+		leasesA = leaseManager("node-a");
+		leasesB = leaseManager("node-b");
+		// node-a takes everything, then hands half back once it sees node-b
+		leasesA.rebalance();
+		leasesB.rebalance();
+		leasesA.rebalance();
+		leasesB.rebalance();
+		assertEquals(PARTITIONS / 2, leasesB.getOwnedPartitions().size());
+		nodeA = service(leasesA);
+		nodeB = service(leasesB);
+	}
+
+	@Test
+	void creatingNodeCompletesTransactionInAnotherNodesPartition() throws InterruptedException {
+		String groupId = "group-" + UUID.randomUUID();
+		Transaction transaction = pendingTransactionOwnedBy(leasesB, groupId);
+		assertFalse(leasesA.owns(transaction.getId()));
+
+		// node-a created it and armed the timer; node-b never re-arms it (no partition change)
+		nodeA.scheduleAutoCompletion(transaction.getId(), LocalDateTime.now().plusNanos(200_000_000));
+
+		Transaction completed = awaitSettled(transaction.getId());
+		assertEquals(TransactionStatus.COMPLETED, completed.getStatus());
+		assertNotNull(completed.getMpesaReceiptNumber());
+		assertEquals(1, completedInStats(groupId));
+	}
+
+	@Test
+	void timersOnBothNodesCompleteExactlyOnce() throws InterruptedException {
+		String groupId = "group-" + UUID.randomUUID();
+		Transaction transaction = pendingTransactionOwnedBy(leasesB, groupId);
+
+		// The creator's timer and the owner's re-armed timer fire together
+		LocalDateTime dueAt = LocalDateTime.now().plusNanos(200_000_000);
+		nodeA.scheduleAutoCompletion(transaction.getId(), dueAt);
+		nodeB.scheduleAutoCompletion(transaction.getId(), dueAt);
+
+		Transaction completed = awaitSettled(transaction.getId());
+		String receipt = completed.getMpesaReceiptNumber();
+		Thread.sleep(500);
+		assertEquals(receipt, transactionRepository.findById(transaction.getId()).orElseThrow().getMpesaReceiptNumber());
+		assertEquals(1, completedInStats(groupId));
+	}
+
+	@Test
+	void cancelledTransactionIsNotCompletedByTimer() throws InterruptedException {
+		String groupId = "group-" + UUID.randomUUID();
+		Transaction transaction = pendingTransactionOwnedBy(leasesB, groupId);
+		transaction.setStatus(TransactionStatus.CANCELLED);
+		transactionRepository.save(transaction);
+
+		nodeA.scheduleAutoCompletion(transaction.getId(), LocalDateTime.now().plusNanos(100_000_000));
+		Thread.sleep(600);
+
+		assertEquals(TransactionStatus.CANCELLED, transactionRepository.findById(transaction.getId()).orElseThrow().getStatus());
+		assertEquals(0, completedInStats(groupId));
+	}
+
+	@Test
+	void maintenanceReadsStayOffTheReplica() {
+		// The replica profile routes read-only transactions to the replica; sweeps and deadline recovery must not
+		assertEquals(List.of(false), shardRouter.onEveryShardPrimary(
+				() -> List.of(TransactionSynchronizationManager.isCurrentTransactionReadOnly())));
+		assertEquals(List.of(true), shardRouter.onEveryShard(
+				() -> List.of(TransactionSynchronizationManager.isCurrentTransactionReadOnly())));
+	}
+
+	private Transaction pendingTransactionOwnedBy(ClusterLeaseManager owner, String groupId) {
+		for (int attempt = 0; attempt < PARTITIONS; attempt++) {
+			Transaction transaction = new Transaction(TransactionType.EXPENSE, 100.0, "Cluster test",
+					TransactionCategory.FOOD, "user-1");
+			transaction.setGroupId(groupId);
+			transaction.setMpesaPhoneNumber("254712345678");
+			transaction.setCompletionDueAt(LocalDateTime.now().plusSeconds(25));
+			Transaction saved = transactionRepository.save(transaction);
+			if (owner.owns(saved.getId())) {
+				return saved;
+			}
+			transactionRepository.delete(saved);
+		}
+		throw new AssertionError("no transaction landed in a partition owned by " + owner.getNodeId());
+	}
+
+	private Transaction awaitSettled(Long transactionId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+			Transaction transaction = transactionRepository.findById(transactionId).orElseThrow();
+			if (transaction.getStatus() != TransactionStatus.PENDING) {
+				return transaction;
+			}
+			Thread.sleep(50);
+		}
+		return fail("transaction " + transactionId + " is still PENDING");
+	}
+
+	private long completedInStats(String groupId) {
+		LocalDate today = LocalDate.now();
+		return sketchRepository.findByGroupIdAndDayBetween(groupId, today, today).stream()
+				.mapToLong(TransactionStatsSketch::getTransactionCount)
+				.sum();
+	}
+
+	private ClusterLeaseManager leaseManager(String nodeId) {
+		ClusterLeaseManager manager = new ClusterLeaseManager(leaseRepository, nodeRepository, event -> { },
+				nodeId, PARTITIONS, 15000, true);
+		manager.init();
+		return manager;
+	}
+
+	private TransactionServiceImpl service(ClusterLeaseManager leases) {
+		return new TransactionServiceImpl(transactionRepository, mpesaMockService, mpesaGateway, readYourWritesTracker,
+				transactionArchiver, stkRetryQueue, taskScheduler, leases, transactionTemplate, shardRouter,
+				searchIndex, anomalyDetector, statsService);
+	}
+}
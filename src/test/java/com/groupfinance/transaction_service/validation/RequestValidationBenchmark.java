@@ -0,0 +1,131 @@
+package com.groupfinance.transaction_service.validation;
+
+import com.groupfinance.transaction_service.dto.TransactionRequest;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * JMH: per-request validation cost before (Bean Validation + service re-check with String.matches)
+ * and after (TransactionRequestValidator: hand-rolled fast path, Bean Validation only on failure).
+ *
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       "-Dexec.args=-cp %classpath org.openjdk.jmh.Main RequestValidationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+    private static final String PHONE = "254712345678";
+    private static final Pattern PHONE_PATTERN = Pattern.compile("254\\d{9}");
+
+    // Non-final so the JIT can't constant-fold the phone checks
+    private String phone = PHONE;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private SpringValidatorAdapter beanValidation;
+    private TransactionRequestValidator requestValidator;
+    private TransactionRequest request;
+    private LegacyTransactionRequest legacyRequest;
+    // MVC allocates the binding result on both paths, so it isn't part of the comparison
+    private Errors requestErrors;
+    private Errors legacyErrors;
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        request = new TransactionRequest(100.0, PHONE, "lunch", TransactionCategory.FOOD);
+        request.setGroupId("group-1");
+        legacyRequest = new LegacyTransactionRequest(100.0, PHONE, "lunch", TransactionCategory.FOOD);
+        beanValidation = new SpringValidatorAdapter(validator);
+        requestValidator = new TransactionRequestValidator(validator);
+        requestErrors = new BeanPropertyBindingResult(request, "transactionRequest");
+        legacyErrors = new BeanPropertyBindingResult(legacyRequest, "transactionRequest");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    // Phone check in isolation
+
+    @Benchmark
+    public boolean phoneStringMatches() {
+        return phone.matches("254\\d{9}");
+    }
+
+    @Benchmark
+    public boolean phonePrecompiledPattern() {
+        return PHONE_PATTERN.matcher(phone).matches();
+    }
+
+    @Benchmark
+    public boolean phoneHandRolled() {
+        return MpesaPhoneNumberValidator.isValid(phone);
+    }
+
+    // Whole request, as POST /api/transactions sees it
+
+    @Benchmark
+    public boolean requestBefore() {
+        // @Valid ran Bean Validation...
+        beanValidation.validate(legacyRequest, legacyErrors);
+        // ...then the service validated again
+        return !legacyErrors.hasErrors() && legacyRequest.amount > 0 && legacyRequest.mpesaPhoneNumber.matches("254\\d{9}");
+    }
+
+    @Benchmark
+    public boolean requestAfter() {
+        requestValidator.validate(request, requestErrors);
+        return !requestErrors.hasErrors();
+    }
+
+    @Benchmark
+    public boolean requestBeanValidationOnly() {
+        // What the failure path costs (and what a valid request would cost without the fast path)
+        return validator.validate(request).isEmpty();
+    }
+
+    /**
+     * TransactionRequest's constraints before the single validation stage
+     */
+    public static class LegacyTransactionRequest {
+
+        @NotNull
+        @Positive
+        private final Double amount;
+
+        @NotBlank
+        private final String mpesaPhoneNumber;
+
+        @NotBlank
+        private final String description;
+
+        @NotNull
+        private final TransactionCategory category;
+
+        LegacyTransactionRequest(Double amount, String mpesaPhoneNumber, String description, TransactionCategory category) {
+            this.amount = amount;
+            this.mpesaPhoneNumber = mpesaPhoneNumber;
+            this.description = description;
+            this.category = category;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.groupfinance.transaction_service.validation;
+
+import com.groupfinance.transaction_service.dto.TransactionRequest;
+import com.groupfinance.transaction_service.model.TransactionCategory;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The fast path and Bean Validation must agree on every request: the fast path may never accept
+ * what the annotations reject, and should not reject what they accept (that only costs time)
+ */
+class TransactionRequestValidatorTests {
+
+	private static final List<String> TEXT_EDGE_CASES = Arrays.asList(
+			null, "", " ", "\t\n", "\u0001", "\u0000", " \u001f ", "\u007f", "\u00a0", "\u2003", "\u3000",
+			"\u200b", "x", " x ", "\u0001x", "lunch");
+
+	private static final List<String> PHONE_EDGE_CASES = Arrays.asList(
+			null, "", " ", "254712345678", "254712345678 ", " 254712345678", "25471234567", "2547123456789",
+			"255712345678", "25471234567x", "254\u0661\u0662\u0663\u0664\u0665\u0666\u0667\u0668\u0669");
+
+	private static final List<Double> AMOUNT_EDGE_CASES = Arrays.asList(
+			null, 0.0, -0.0, -1.0, Double.MIN_VALUE, 100.0, Double.MAX_VALUE,
+			Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN);
+
+	private static ValidatorFactory validatorFactory;
+	private static Validator validator;
+
+	@BeforeAll
+	static void createValidator() {
+		validatorFactory = Validation.buildDefaultValidatorFactory();
+		validator = validatorFactory.getValidator();
+	}
+
+	@AfterAll
+	static void closeValidator() {
+		validatorFactory.close();
+	}
+
+	@Test
+	void descriptionEdgeCasesAgree() {
+		for (String description : TEXT_EDGE_CASES) {
+			assertAgree(request -> request.setDescription(description), "description " + escape(description));
+		}
+	}
+
+	@Test
+	void groupIdEdgeCasesAgree() {
+		for (String groupId : TEXT_EDGE_CASES) {
+			assertAgree(request -> request.setGroupId(groupId), "groupId " + escape(groupId));
+		}
+		for (String groupId : List.of("g".repeat(64), "g".repeat(65), " ".repeat(63) + "g", "\u0001".repeat(64))) {
+			assertAgree(request -> request.setGroupId(groupId), "groupId " + escape(groupId));
+		}
+	}
+
+	@Test
+	void phoneEdgeCasesAgree() {
+		for (String phone : PHONE_EDGE_CASES) {
+			assertAgree(request -> request.setMpesaPhoneNumber(phone), "phone " + escape(phone));
+		}
+	}
+
+	@Test
+	void amountEdgeCasesAgree() {
+		for (Double amount : AMOUNT_EDGE_CASES) {
+			assertAgree(request -> request.setAmount(amount), "amount " + amount);
+		}
+	}
+
+	@Test
+	void missingCategoryAgrees() {
+		assertAgree(request -> request.setCategory(null), "category null");
+	}
+
+	private static void assertAgree(Consumer<TransactionRequest> edit, String label) {
+		TransactionRequest request = new TransactionRequest(100.0, "254712345678", "lunch", TransactionCategory.FOOD);
+		request.setGroupId("group-1");
+		edit.accept(request);
+		boolean beanValid = validator.validate(request).isEmpty();
+		assertEquals(beanValid, TransactionRequestValidator.isValid(request), label);
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder escaped = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			escaped.append(c >= ' ' && c < 0x7f ? String.valueOf(c) : String.format("\\u%04x", (int) c));
+		}
+		return escaped.append('"').toString();
+	}
+}